@@ -1,6 +1,11 @@
 package com.pedrozc90.core.authentication;
 
+import com.pedrozc90.core.authentication.password.PasswordHashingEngine;
+import com.pedrozc90.core.concurrent.BoundedExecutor;
+import com.pedrozc90.core.concurrent.BoundedExecutorFactory;
+import com.pedrozc90.core.config.ProxyConfigurationProperties;
 import com.pedrozc90.core.utils.AuthenticationUtils;
+import com.pedrozc90.core.utils.RequestUtils;
 import com.pedrozc90.users.models.Profile;
 import com.pedrozc90.users.models.User;
 import com.pedrozc90.users.repo.UserRepository;
@@ -11,11 +16,10 @@ import io.micronaut.security.authentication.AuthenticationProvider;
 import io.micronaut.security.authentication.AuthenticationRequest;
 import io.micronaut.security.authentication.AuthenticationResponse;
 import jakarta.inject.Inject;
+import jakarta.inject.Named;
 import jakarta.inject.Singleton;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.reactivestreams.Publisher;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -27,34 +31,63 @@ public class AuthenticationProviderUserPassword implements AuthenticationProvide
     @Inject
     private UserRepository userRepo;
 
+    @Inject
+    @Named(BoundedExecutorFactory.LOGIN)
+    private BoundedExecutor loginExecutor;
+
+    @Inject
+    private PasswordHashingEngine passwordHashingEngine;
+
+    @Inject
+    private LoginThrottle loginThrottle;
+
+    @Inject
+    private ProxyConfigurationProperties proxies;
+
     @Override
     public Publisher<AuthenticationResponse> authenticate(@Nullable final HttpRequest<?> httpRequest,
                                                           final AuthenticationRequest<?, ?> authenticationRequest) {
-        return Flux.create((emitter) -> {
-            final String username = authenticationRequest.getIdentity().toString();
-            final String password = authenticationRequest.getSecret().toString();
-
-            final String passwordHashed = DigestUtils.md5Hex(password);
-
-            final Optional<User> userOpt = userRepo.findByCredentials(username, passwordHashed);
-            if (userOpt.isEmpty()) {
-                emitter.error(AuthenticationResponse.exception(AuthenticationFailureReason.USER_NOT_FOUND));
-                return;
-            }
-
-            final User user = userOpt.get();
-            if (user.isNotActive()) {
-                emitter.error(AuthenticationResponse.exception(AuthenticationFailureReason.ACCOUNT_LOCKED));
-                return;
-            }
-
-            final Profile profile = user.getProfile();
-            final Map<String, Object> attributes = new HashMap<>();
-            AuthenticationUtils.setUserId(user, attributes);
-
-            emitter.next(AuthenticationResponse.success(username, profile.getRoles(), attributes));
-            emitter.complete();
-        }, FluxSink.OverflowStrategy.ERROR);
+        final String username = authenticationRequest.getIdentity().toString();
+        final String password = authenticationRequest.getSecret().toString();
+        final String address = httpRequest != null ? RequestUtils.getRemoteAddress(httpRequest, proxies) : null;
+
+        // throttling is checked up front by GuardedAuthenticator
+        // the lookup runs on the login pool and the hash check on the hashing pool, never on the event loop
+        return loginExecutor.submit(() -> userRepo.findByUsername(username))
+            .flatMap((userOpt) -> passwordHashingEngine.verify(password, userOpt.map(User::getPassword).orElse(null))
+                .flatMap((match) -> {
+                    if (userOpt.isEmpty() || !match.isMatched()) {
+                        loginThrottle.onFailure(username, address);
+                        return Mono.error(AuthenticationResponse.exception(AuthenticationFailureReason.USER_NOT_FOUND));
+                    }
+
+                    final User user = userOpt.get();
+                    if (user.isNotActive()) {
+                        return Mono.error(AuthenticationResponse.exception(AuthenticationFailureReason.ACCOUNT_LOCKED));
+                    }
+
+                    loginThrottle.onSuccess(username, address);
+
+                    final Optional<String> rehashed = match.getRehashed();
+                    if (rehashed.isEmpty()) {
+                        return Mono.just(success(user));
+                    }
+
+                    // transparently upgrade legacy or outdated hashes on successful login
+                    return loginExecutor.submit(() -> {
+                        userRepo.updatePassword(user.getId(), rehashed.get());
+                        return success(user);
+                    });
+                })
+            );
+    }
+
+    private AuthenticationResponse success(final User user) {
+        final Profile profile = user.getProfile();
+        final Map<String, Object> attributes = new HashMap<>();
+        AuthenticationUtils.setUserId(user, attributes);
+
+        return AuthenticationResponse.success(user.getUsername(), profile.getRoles(), attributes);
     }
 
 }
@@ -1,23 +1,34 @@
 package com.pedrozc90.core.authentication;
 
+import com.pedrozc90.core.config.ProxyConfigurationProperties;
+import com.pedrozc90.core.config.RefreshTokenRotationConfigurationProperties;
+import com.pedrozc90.core.utils.RequestUtils;
 import com.pedrozc90.token.models.AccessAction;
 import com.pedrozc90.token.repo.AccessTokenRepository;
+import com.pedrozc90.token.repo.RefreshTokenRepository;
+import com.pedrozc90.token.stats.LoginStatistics;
 import com.pedrozc90.users.repo.UserRepository;
 import io.micronaut.context.annotation.Replaces;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.security.authentication.Authentication;
 import io.micronaut.security.authentication.AuthenticationException;
 import io.micronaut.security.authentication.AuthenticationResponse;
+import io.micronaut.security.errors.OauthErrorResponseException;
 import io.micronaut.security.handlers.LoginHandler;
 import io.micronaut.security.token.jwt.bearer.AccessRefreshTokenLoginHandler;
 import io.micronaut.security.token.jwt.generator.AccessRefreshTokenGenerator;
+import io.micronaut.security.token.generator.RefreshTokenGenerator;
 import io.micronaut.security.token.jwt.render.AccessRefreshToken;
+import io.micronaut.security.token.validator.RefreshTokenValidator;
 import jakarta.inject.Singleton;
 
 import java.util.Optional;
 
+import static io.micronaut.security.errors.IssuingAnAccessTokenErrorCode.INVALID_GRANT;
+
 @Singleton
 @Replaces(AccessRefreshTokenLoginHandler.class)
 public class CustomAccessRefreshTokenLoginHandler implements LoginHandler {
@@ -25,43 +36,90 @@ public class CustomAccessRefreshTokenLoginHandler implements LoginHandler {
     protected final AccessRefreshTokenGenerator accessRefreshTokenGenerator;
     protected final AccessTokenRepository accessTokenRepository;
     protected final UserRepository userRepository;
+    protected final RefreshTokenGenerator refreshTokenGenerator;
+    protected final RefreshTokenValidator refreshTokenValidator;
+    protected final RefreshTokenRepository refreshTokenRepository;
+    protected final RefreshTokenRotationConfigurationProperties rotationConfig;
+    protected final LoginStatistics loginStatistics;
+    protected final ProxyConfigurationProperties proxies;
 
     public CustomAccessRefreshTokenLoginHandler(final AccessRefreshTokenGenerator accessRefreshTokenGenerator,
                                                 final AccessTokenRepository accessTokenRepository,
-                                                final UserRepository userRepository) {
+                                                final UserRepository userRepository,
+                                                final RefreshTokenGenerator refreshTokenGenerator,
+                                                final RefreshTokenValidator refreshTokenValidator,
+                                                final RefreshTokenRepository refreshTokenRepository,
+                                                final RefreshTokenRotationConfigurationProperties rotationConfig,
+                                                final LoginStatistics loginStatistics,
+                                                final ProxyConfigurationProperties proxies) {
         this.accessRefreshTokenGenerator = accessRefreshTokenGenerator;
         this.accessTokenRepository = accessTokenRepository;
         this.userRepository = userRepository;
+        this.refreshTokenGenerator = refreshTokenGenerator;
+        this.refreshTokenValidator = refreshTokenValidator;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.rotationConfig = rotationConfig;
+        this.loginStatistics = loginStatistics;
+        this.proxies = proxies;
     }
 
     @Override
     public MutableHttpResponse<?> loginSuccess(final Authentication authentication, final HttpRequest<?> request) {
-        final Optional<AccessRefreshToken> accessRefreshTokenOpt = this.accessRefreshTokenGenerator.generate(authentication);
+        // the key is created here, instead of inside the generator, so the access log can reference it without
+        // verifying the signed refresh token again
+        final String key = this.refreshTokenGenerator.createKey(authentication);
+        final Optional<AccessRefreshToken> accessRefreshTokenOpt = this.refreshTokenGenerator.generate(authentication, key)
+            .flatMap((refreshToken) -> this.accessRefreshTokenGenerator.generate(refreshToken, authentication));
         if (accessRefreshTokenOpt.isPresent()) {
+            refreshTokenRepository.register(authentication.getName(), key);
             final AccessRefreshToken accessRefreshToken = accessRefreshTokenOpt.get();
-            accessTokenRepository.register(AccessAction.LOGIN, authentication, accessRefreshToken, request);
+            register(AccessAction.LOGIN, authentication, accessRefreshToken, key, request);
             return HttpResponse.ok(accessRefreshToken);
         }
-        accessTokenRepository.register(AccessAction.LOGIN_FAILED, authentication, request);
+        register(AccessAction.LOGIN_FAILED, authentication, null, null, request);
         return HttpResponse.serverError();
     }
 
     @Override
     public MutableHttpResponse<?> loginRefresh(final Authentication authentication, final String refreshToken, final HttpRequest<?> request) {
-        final Optional<AccessRefreshToken> accessRefreshTokenOpt = this.accessRefreshTokenGenerator.generate(refreshToken, authentication);
-        if (accessRefreshTokenOpt.isPresent()) {
-            final AccessRefreshToken accessRefreshToken = accessRefreshTokenOpt.get();
-            accessTokenRepository.register(AccessAction.LOGIN_REFRESH, authentication, accessRefreshToken, request);
-            return HttpResponse.ok(accessRefreshToken);
+        // every refresh rotates the refresh token: the presented one is retired and a child is issued in its family,
+        // the rotation is settled before the child is signed so a lost race or a replay never mints a token
+        final Optional<String> parentKeyOpt = this.refreshTokenValidator.validate(refreshToken);
+        if (parentKeyOpt.isEmpty()) {
+            register(AccessAction.LOGIN_REFRESH_FAILED, authentication, null, null, request);
+            return HttpResponse.serverError();
         }
-        accessTokenRepository.register(AccessAction.LOGIN_REFRESH_FAILED, authentication, request);
-        return HttpResponse.serverError();
+
+        final String childKey = this.refreshTokenGenerator.createKey(authentication);
+        if (!refreshTokenRepository.rotate(parentKeyOpt.get(), childKey, rotationConfig.getReuseGracePeriod())) {
+            register(AccessAction.LOGIN_REFRESH_FAILED, authentication, null, null, request);
+            throw new OauthErrorResponseException(INVALID_GRANT, "refresh token already used", null);
+        }
+
+        final Optional<AccessRefreshToken> accessRefreshTokenOpt = this.refreshTokenGenerator.generate(authentication, childKey)
+            .flatMap((childToken) -> this.accessRefreshTokenGenerator.generate(childToken, authentication));
+        if (accessRefreshTokenOpt.isEmpty()) {
+            register(AccessAction.LOGIN_REFRESH_FAILED, authentication, null, null, request);
+            return HttpResponse.serverError();
+        }
+
+        final AccessRefreshToken accessRefreshToken = accessRefreshTokenOpt.get();
+        register(AccessAction.LOGIN_REFRESH, authentication, accessRefreshToken, childKey, request);
+        return HttpResponse.ok(accessRefreshToken);
     }
 
     @Override
     public MutableHttpResponse<?> loginFailed(final AuthenticationResponse authenticationResponse, final HttpRequest<?> request) {
-        accessTokenRepository.register(AccessAction.LOGIN_FAILED, request);
+        register(AccessAction.LOGIN_FAILED, null, null, null, request);
         throw new AuthenticationException(authenticationResponse.getMessage().orElse(null));
     }
 
+    private void register(final AccessAction action, @Nullable final Authentication authentication,
+                          @Nullable final AccessRefreshToken accessRefreshToken, @Nullable final String refreshTokenKey,
+                          final HttpRequest<?> request) {
+        final String username = authentication != null ? authentication.getName() : RequestUtils.getUsername(request);
+        loginStatistics.record(action, username, RequestUtils.getRemoteAddress(request, proxies));
+        accessTokenRepository.register(action, authentication, accessRefreshToken, refreshTokenKey, request);
+    }
+
 }
@@ -0,0 +1,92 @@
+package com.pedrozc90.core.authentication;
+
+import com.pedrozc90.core.concurrent.BoundedExecutor;
+import com.pedrozc90.core.concurrent.BoundedExecutorFactory;
+import com.pedrozc90.core.config.ProxyConfigurationProperties;
+import com.pedrozc90.core.exceptions.ApplicationException;
+import com.pedrozc90.core.utils.RequestUtils;
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.security.authentication.AuthenticationProvider;
+import io.micronaut.security.authentication.AuthenticationRequest;
+import io.micronaut.security.authentication.AuthenticationResponse;
+import io.micronaut.security.authentication.Authenticator;
+import io.micronaut.security.config.SecurityConfiguration;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * {@link Authenticator} that rejects throttled logins with a 429 and sheds logins with a 503 while
+ * the login pool is saturated, before any provider runs.
+ * <p>
+ * The stock authenticator turns every provider error into a failed authentication, which the login
+ * endpoint answers with a 401 and records as a failed login. Errors raised here are propagated
+ * instead, so they reach the exception handlers with their own status and skip the login handler.
+ * An {@link ApplicationException} raised by a provider (e.g. a pool filling up between the check and
+ * the submit) is carried past the stock authenticator through a request attribute and re-raised.
+ */
+@Singleton
+@Replaces(Authenticator.class)
+public class GuardedAuthenticator extends Authenticator {
+
+    private static final String REJECTION = GuardedAuthenticator.class.getName() + ".REJECTION";
+
+    private final LoginThrottle loginThrottle;
+    private final BoundedExecutor loginExecutor;
+    private final ProxyConfigurationProperties proxies;
+
+    public GuardedAuthenticator(final Collection<AuthenticationProvider> authenticationProviders,
+                                final SecurityConfiguration securityConfiguration,
+                                final LoginThrottle loginThrottle,
+                                @Named(BoundedExecutorFactory.LOGIN) final BoundedExecutor loginExecutor,
+                                final ProxyConfigurationProperties proxies) {
+        super(guard(authenticationProviders), securityConfiguration);
+        this.loginThrottle = loginThrottle;
+        this.loginExecutor = loginExecutor;
+        this.proxies = proxies;
+    }
+
+    @Override
+    public Publisher<AuthenticationResponse> authenticate(@Nullable final HttpRequest<?> request,
+                                                          final AuthenticationRequest<?, ?> authenticationRequest) {
+        // shed load before touching the throttle, a busy server is not the client's failed attempt
+        if (loginExecutor.isSaturated()) {
+            return Flux.error(ApplicationException.of("Service is busy, try again later.").serviceUnavailable());
+        }
+
+        final String username = authenticationRequest.getIdentity() != null ? authenticationRequest.getIdentity().toString() : null;
+        final String address = request != null ? RequestUtils.getRemoteAddress(request, proxies) : null;
+
+        // throttled attempts are rejected before any database or hashing work
+        if (!loginThrottle.tryAcquire(username, address)) {
+            return Flux.error(ApplicationException.of("Too many login attempts, try again later.")
+                .tooManyRequests()
+                .retryAfter(loginThrottle.retryAfter(username, address)));
+        }
+
+        return Flux.from(super.authenticate(request, authenticationRequest))
+            .flatMap((response) -> {
+                final ApplicationException rejection = (request != null)
+                    ? request.getAttribute(REJECTION, ApplicationException.class).orElse(null)
+                    : null;
+                return (rejection != null) ? Flux.error(rejection) : Flux.just(response);
+            });
+    }
+
+    private static Collection<AuthenticationProvider> guard(final Collection<AuthenticationProvider> providers) {
+        return providers.stream()
+            .map((provider) -> (AuthenticationProvider) (request, authenticationRequest) ->
+                Flux.from(provider.authenticate(request, authenticationRequest))
+                    .doOnError(ApplicationException.class, (e) -> {
+                        if (request != null) request.setAttribute(REJECTION, e);
+                    }))
+            .collect(Collectors.toList());
+    }
+
+}
@@ -15,8 +15,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 @Singleton
@@ -25,66 +23,61 @@ public class JwtClaimsSetGenerator implements ClaimsGenerator {
 
     private static final Logger LOG = LoggerFactory.getLogger(JwtClaimsSetGenerator.class);
     private static final String ROLES_KEY = "rolesKey";
-    private final TokenConfiguration tokenConfiguration;
+    private static final Set<String> EXCLUDED_CLAIMS = Set.of("exp", "iat", "nbf");
     private final JwtIdGenerator jwtIdGenerator;
-    private final ClaimsAudienceProvider claimsAudienceProvider;
-    private final String appName;
+    private final String rolesKey;
+
+    // claims shared by every token (iss, aud, rolesKey), computed once
+    private final JWTClaimsSet template;
 
     public JwtClaimsSetGenerator(final TokenConfiguration tokenConfiguration,
                                  @Nullable final JwtIdGenerator jwtIdGenerator,
                                  @Nullable final ClaimsAudienceProvider claimsAudienceProvider,
                                  @Nullable final ApplicationConfiguration applicationConfiguration) {
-        this.tokenConfiguration = tokenConfiguration;
         this.jwtIdGenerator = jwtIdGenerator;
-        this.claimsAudienceProvider = claimsAudienceProvider;
-        this.appName = applicationConfiguration != null ? (String) applicationConfiguration.getName().orElse("micronaut") : "micronaut";
-    }
+        this.rolesKey = tokenConfiguration.getRolesName();
 
-    public Map<String, Object> generateClaims(final Authentication authentication, @Nullable final Integer expiration) {
-        JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder();
-        this.populateIat(builder);
-        this.populateExp(builder, expiration);
-        this.populateJti(builder);
-        this.populateIss(builder);
-        this.populateAud(builder);
-        this.populateNbf(builder);
-        this.populateWithAuthentication(builder, authentication);
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("Generated claim set: {}", builder.build().toJSONObject());
+        final String appName = applicationConfiguration != null ? (String) applicationConfiguration.getName().orElse("micronaut") : "micronaut";
+        final JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder();
+        builder.issuer(appName);
+        if (claimsAudienceProvider != null) {
+            builder.audience(claimsAudienceProvider.audience());
         }
-        return builder.build().getClaims();
-    }
-
-    protected void populateIss(final JWTClaimsSet.Builder builder) {
-        if (this.appName != null) {
-            builder.issuer(this.appName);
+        if (!StringUtils.equalsIgnoreCase(rolesKey, "roles")) {
+            builder.claim(ROLES_KEY, rolesKey);
         }
+        this.template = builder.build();
     }
 
-    protected void populateSub(final JWTClaimsSet.Builder builder, final Authentication authentication) {
-        builder.subject(authentication.getName());
+    public Map<String, Object> generateClaims(final Authentication authentication, @Nullable final Integer expiration) {
+        return generateClaimsSet(authentication, expiration).getClaims();
     }
 
-    protected void populateAud(final JWTClaimsSet.Builder builder) {
-        if (this.claimsAudienceProvider != null) {
-            builder.audience(this.claimsAudienceProvider.audience());
+    public JWTClaimsSet generateClaimsSet(final Authentication authentication, @Nullable final Integer expiration) {
+        final JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder(template);
+        this.populateTimes(builder, expiration);
+        this.populateJti(builder);
+        this.populateWithAuthentication(builder, authentication);
+        final JWTClaimsSet claimsSet = builder.build();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Generated claim set: {}", claimsSet.toJSONObject());
         }
-
+        return claimsSet;
     }
 
-    protected void populateExp(final JWTClaimsSet.Builder builder, @Nullable final Integer expiration) {
+    // iat, nbf and exp share a single clock read
+    protected void populateTimes(final JWTClaimsSet.Builder builder, @Nullable final Integer expiration) {
+        final Date now = new Date();
+        builder.issueTime(now);
+        builder.notBeforeTime(now);
         if (expiration != null) {
             LOG.debug("Setting expiration to {}", expiration);
-            builder.expirationTime(Date.from(Instant.now().plus((long) expiration, ChronoUnit.SECONDS)));
+            builder.expirationTime(new Date(now.getTime() + expiration * 1000L));
         }
     }
 
-    protected void populateNbf(final JWTClaimsSet.Builder builder) {
-        builder.notBeforeTime(new Date());
-    }
-
-    protected void populateIat(final JWTClaimsSet.Builder builder) {
-        builder.issueTime(new Date());
+    protected void populateSub(final JWTClaimsSet.Builder builder, final Authentication authentication) {
+        builder.subject(authentication.getName());
     }
 
     protected void populateJti(final JWTClaimsSet.Builder builder) {
@@ -98,25 +91,19 @@ public class JwtClaimsSetGenerator implements ClaimsGenerator {
         final Map<String, Object> attributes = authentication.getAttributes();
         Objects.requireNonNull(builder);
         attributes.forEach(builder::claim);
-
-        String rolesKey = this.tokenConfiguration.getRolesName();
-        if (!StringUtils.equalsIgnoreCase(rolesKey, "roles")) {
-            builder.claim(ROLES_KEY, rolesKey);
-        }
         builder.claim(rolesKey, authentication.getRoles());
     }
 
     public Map<String, Object> generateClaimsSet(final Map<String, ?> oldClaims, final Integer expiration) {
         final JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder();
-        final List<String> excludedClaims = Arrays.asList("exp", "iat", "nbf");
 
-        oldClaims.entrySet().stream()
-            .filter((e) -> !excludedClaims.contains(e.getKey()))
-            .forEach((e) -> builder.claim(e.getKey(), e.getValue()));
+        oldClaims.forEach((key, value) -> {
+            if (!EXCLUDED_CLAIMS.contains(key)) {
+                builder.claim(key, value);
+            }
+        });
 
-        this.populateExp(builder, expiration);
-        this.populateIat(builder);
-        this.populateNbf(builder);
+        this.populateTimes(builder, expiration);
         return builder.build().getClaims();
     }
 
@@ -1,8 +1,10 @@
 package com.pedrozc90.core.authentication;
 
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.SignedJWT;
 import com.pedrozc90.core.events.AuthenticationValidatedEvent;
+import com.pedrozc90.core.events.EventDispatcher;
 import io.micronaut.context.annotation.Replaces;
-import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.security.authentication.Authentication;
 import io.micronaut.security.event.TokenValidatedEvent;
@@ -15,6 +17,7 @@ import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.Collection;
 import java.util.Optional;
@@ -26,15 +29,21 @@ public class JwtTokenAuthenticationFetcher implements AuthenticationFetcher {
 
     public static final Integer ORDER = 0;
     protected final Collection<TokenValidator> tokenValidators;
-    protected final ApplicationEventPublisher<Object> eventPublisher;
+    protected final EventDispatcher eventDispatcher;
     private final TokenResolver tokenResolver;
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+    private final JwtTokenRouter jwtTokenRouter;
 
     public JwtTokenAuthenticationFetcher(final Collection<TokenValidator> tokenValidators,
-                                         final ApplicationEventPublisher<Object> eventPublisher,
-                                         final TokenResolver tokenResolver) {
+                                         final EventDispatcher eventDispatcher,
+                                         final TokenResolver tokenResolver,
+                                         final TokenAuthenticationCache tokenAuthenticationCache,
+                                         final JwtTokenRouter jwtTokenRouter) {
         this.tokenValidators = tokenValidators;
-        this.eventPublisher = eventPublisher;
+        this.eventDispatcher = eventDispatcher;
         this.tokenResolver = tokenResolver;
+        this.tokenAuthenticationCache = tokenAuthenticationCache;
+        this.jwtTokenRouter = jwtTokenRouter;
     }
 
     @Override
@@ -44,18 +53,42 @@ public class JwtTokenAuthenticationFetcher implements AuthenticationFetcher {
             return Flux.empty();
         } else {
             final String token = tokenOpt.get();
+
+            final Optional<Authentication> cachedOpt = tokenAuthenticationCache.get(token);
+            if (cachedOpt.isPresent()) {
+                return Flux.just(onAuthenticated(request, token, cachedOpt.get()));
+            }
+
+            final long stamp = tokenAuthenticationCache.stamp();
+
+            // signed tokens are parsed once and routed to the validator matching their algorithm
+            final Optional<JWT> jwtOpt = jwtTokenRouter.parse(token);
+            if (jwtOpt.isPresent() && jwtOpt.get() instanceof SignedJWT) {
+                final SignedJWT jwt = (SignedJWT) jwtOpt.get();
+                return Mono.justOrEmpty(jwtTokenRouter.validate(jwt, request))
+                    .map((authentication) -> {
+                        tokenAuthenticationCache.put(token, authentication, stamp);
+                        return onAuthenticated(request, token, authentication);
+                    });
+            }
+
             return Flux.fromIterable(this.tokenValidators)
                 .flatMap((tokenValidator) -> tokenValidator.validateToken(token, request))
                 .next()
                 .map((authentication) -> {
-                    request.setAttribute(SecurityFilter.TOKEN, token);
-                    this.eventPublisher.publishEvent(new TokenValidatedEvent(token));
-                    this.eventPublisher.publishEvent(new AuthenticationValidatedEvent(authentication));
-                    return authentication;
+                    tokenAuthenticationCache.put(token, authentication, stamp);
+                    return onAuthenticated(request, token, authentication);
                 });
         }
     }
 
+    private Authentication onAuthenticated(final HttpRequest<?> request, final String token, final Authentication authentication) {
+        request.setAttribute(SecurityFilter.TOKEN, token);
+        this.eventDispatcher.publish(new TokenValidatedEvent(token));
+        this.eventDispatcher.publish(new AuthenticationValidatedEvent(authentication));
+        return authentication;
+    }
+
     public int getOrder() {
         return ORDER;
     }
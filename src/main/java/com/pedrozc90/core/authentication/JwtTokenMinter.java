@@ -0,0 +1,84 @@
+package com.pedrozc90.core.authentication;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.token.jwt.encryption.EncryptionConfiguration;
+import io.micronaut.security.token.jwt.generator.JwtTokenGenerator;
+import io.micronaut.security.token.jwt.generator.claims.ClaimsGenerator;
+import io.micronaut.security.token.jwt.signature.SignatureGeneratorConfiguration;
+import io.micronaut.security.token.jwt.signature.secret.SecretSignature;
+import io.micronaut.security.token.jwt.signature.secret.SecretSignatureConfiguration;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * {@link JwtTokenGenerator} that, for HMAC signed tokens, reuses a single signer and the
+ * pre-encoded header segment, and gets claims straight from {@link JwtClaimsSetGenerator}
+ * without the map round trip. Other signature or encryption setups use the default path.
+ */
+@Slf4j
+@Singleton
+@Replaces(JwtTokenGenerator.class)
+public class JwtTokenMinter extends JwtTokenGenerator {
+
+    private final MACSigner signer;
+    private final JWSHeader header;
+    private final String headerSegment;
+
+    public JwtTokenMinter(@Named("generator") final SignatureGeneratorConfiguration signatureConfiguration,
+                          @Named("generator") @Nullable final EncryptionConfiguration encryptionConfiguration,
+                          @Named("generator") @Nullable final SecretSignatureConfiguration secretConfiguration,
+                          final ClaimsGenerator claimsGenerator) throws JOSEException {
+        super(signatureConfiguration, encryptionConfiguration, claimsGenerator);
+        if (encryptionConfiguration == null && secretConfiguration != null && signatureConfiguration instanceof SecretSignature) {
+            // same key material SecretSignature derives, but built once instead of per token
+            final byte[] secret = secretConfiguration.isBase64()
+                ? Base64.getDecoder().decode(secretConfiguration.getSecret())
+                : secretConfiguration.getSecret().getBytes(StandardCharsets.UTF_8);
+            this.signer = new MACSigner(secret);
+            this.header = new JWSHeader(secretConfiguration.getJwsAlgorithm());
+            this.headerSegment = header.toBase64URL().toString();
+        } else {
+            this.signer = null;
+            this.header = null;
+            this.headerSegment = null;
+        }
+    }
+
+    @Override
+    public Optional<String> generateToken(final Authentication authentication, @Nullable final Integer expiration) {
+        if (signer == null || !(claimsGenerator instanceof JwtClaimsSetGenerator)) {
+            return super.generateToken(authentication, expiration);
+        }
+        final JWTClaimsSet claimsSet = ((JwtClaimsSetGenerator) claimsGenerator).generateClaimsSet(authentication, expiration);
+        try {
+            return Optional.of(internalGenerate(claimsSet));
+        } catch (JOSEException | ParseException e) {
+            log.error("failed to generate token: {}", e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    protected String internalGenerate(final JWTClaimsSet claimsSet) throws JOSEException, ParseException {
+        if (signer == null) {
+            return super.internalGenerate(claimsSet);
+        }
+        final String signingInput = headerSegment + "." + Base64URL.encode(claimsSet.toString());
+        final Base64URL signature = signer.sign(header, signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + signature;
+    }
+
+}
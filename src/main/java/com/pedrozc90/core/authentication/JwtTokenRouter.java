@@ -0,0 +1,88 @@
+package com.pedrozc90.core.authentication;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.JWTParser;
+import com.nimbusds.jwt.SignedJWT;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.token.jwt.signature.SignatureConfiguration;
+import io.micronaut.security.token.jwt.validator.GenericJwtClaimsValidator;
+import io.micronaut.security.token.jwt.validator.JwtAuthenticationFactory;
+import io.micronaut.security.token.jwt.validator.JwtValidator;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Validates signed JWTs that were parsed once, using a validator restricted to the signature
+ * configurations that support the token {@code alg} header, instead of trying every validator.
+ * <p>
+ * {@link SignatureConfiguration} does not expose key ids, so the {@code kid} header is still
+ * matched by the signature itself (e.g. JWKS signatures).
+ */
+@Slf4j
+@Singleton
+public class JwtTokenRouter {
+
+    private final JwtAuthenticationFactory jwtAuthenticationFactory;
+
+    // built once from the algorithms the signature configurations support, so the attacker controlled
+    // alg header is only ever used as a lookup key
+    private final Map<JWSAlgorithm, JwtValidator> validators;
+
+    public JwtTokenRouter(final Collection<SignatureConfiguration> signatures,
+                          final Collection<GenericJwtClaimsValidator> claimsValidators,
+                          final JwtAuthenticationFactory jwtAuthenticationFactory) {
+        this.jwtAuthenticationFactory = jwtAuthenticationFactory;
+
+        final Set<JWSAlgorithm> algorithms = new LinkedHashSet<>();
+        algorithms.addAll(JWSAlgorithm.Family.HMAC_SHA);
+        algorithms.addAll(JWSAlgorithm.Family.SIGNATURE);
+
+        final Map<JWSAlgorithm, JwtValidator> validators = new HashMap<>();
+        for (final JWSAlgorithm algorithm : algorithms) {
+            final List<SignatureConfiguration> supported = signatures.stream()
+                .filter((signature) -> signature.supports(algorithm))
+                .collect(Collectors.toList());
+            if (!supported.isEmpty()) {
+                validators.put(algorithm, JwtValidator.builder()
+                    .withSignatures(supported)
+                    .withClaimValidators(claimsValidators)
+                    .build());
+            }
+        }
+        this.validators = Collections.unmodifiableMap(validators);
+    }
+
+    public Optional<JWT> parse(final String token) {
+        try {
+            return Optional.of(JWTParser.parse(token));
+        } catch (ParseException e) {
+            log.debug("failed to parse token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public Optional<Authentication> validate(final SignedJWT jwt, final HttpRequest<?> request) {
+        final JWSAlgorithm algorithm = jwt.getHeader().getAlgorithm();
+        final JwtValidator validator = validators.get(algorithm);
+        if (validator == null) {
+            log.debug("no signature configuration supports algorithm {}", algorithm);
+            return Optional.empty();
+        }
+        return validator.validate(jwt, request)
+            .flatMap(jwtAuthenticationFactory::createAuthentication);
+    }
+
+}
@@ -0,0 +1,229 @@
+package com.pedrozc90.core.authentication;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.pedrozc90.core.config.LoginThrottleConfigurationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token buckets per username and per client address, checked before any database or hashing work.
+ * <p>
+ * Every attempt spends a token from both buckets, so guesses against one account are capped no matter
+ * how many addresses they come from. Consecutive failures also block the (username, client address)
+ * pair with an exponential backoff; keying the backoff on the pair means bad passwords sent from one
+ * address never lock the account out for its owner elsewhere. A shared failure budget sheds load during
+ * bursts of bad credentials: while it is spent, any pair or address with recent failures is rejected and
+ * only clean clients get through.
+ * <p>
+ * The address must come from {@link com.pedrozc90.core.utils.RequestUtils#getRemoteAddress}, which only
+ * honours {@code x-forwarded-for} behind a trusted proxy.
+ */
+@Singleton
+public class LoginThrottle {
+
+    private final LoginThrottleConfigurationProperties config;
+    private final Cache<String, Bucket> usernames;
+    private final Cache<String, Bucket> pairs;
+    private final Cache<String, Bucket> addresses;
+    private final Bucket globalFailures;
+    private final Counter rejectedCounter;
+
+    public LoginThrottle(final LoginThrottleConfigurationProperties config, final MeterRegistry registry) {
+        this.config = config;
+        this.usernames = newCache(config);
+        this.pairs = newCache(config);
+        this.addresses = newCache(config);
+        this.globalFailures = new Bucket(config.getGlobalFailureCapacity(), System.nanoTime());
+        this.rejectedCounter = Counter.builder("login.throttled").register(registry);
+    }
+
+    private static Cache<String, Bucket> newCache(final LoginThrottleConfigurationProperties config) {
+        return CacheBuilder.newBuilder()
+            .maximumSize(config.getMaximumKeys())
+            .expireAfterAccess(config.getMaxBackoff().plus(config.getUsernameRefillInterval().multipliedBy(config.getUsernameCapacity())))
+            .build();
+    }
+
+    public boolean tryAcquire(final String username, final String address) {
+        if (!config.isEnabled()) return true;
+        final long now = System.nanoTime();
+        final Bucket user = bucket(usernames, username, config.getUsernameCapacity(), now);
+        final Bucket pair = bucket(pairs, pair(username, address), config.getUsernameCapacity(), now);
+        final Bucket addr = bucket(addresses, address, config.getAddressCapacity(), now);
+
+        // failure budget spent: shed everyone that has been failing lately
+        final boolean shedding = globalFailures.peek(config.getGlobalFailureCapacity(), config.getGlobalFailureRefillInterval(), now) < 1;
+        final boolean rejected = (shedding && (hasFailures(pair) || hasFailures(addr)))
+            || (pair != null && pair.isBlocked(now))
+            || !acquire(user, config.getUsernameCapacity(), config.getUsernameRefillInterval(), now)
+            || !acquire(addr, config.getAddressCapacity(), config.getAddressRefillInterval(), now);
+        if (rejected) {
+            rejectedCounter.increment();
+        }
+        return !rejected;
+    }
+
+    /**
+     * How long until every bucket of a rejected attempt would accept it again.
+     */
+    public Duration retryAfter(final String username, final String address) {
+        final long now = System.nanoTime();
+        final long user = wait(get(usernames, username), config.getUsernameRefillInterval(), now);
+        final long pair = wait(get(pairs, pair(username, address)), config.getUsernameRefillInterval(), now);
+        final long addr = wait(get(addresses, address), config.getAddressRefillInterval(), now);
+        final long wait = Math.max(Math.max(user, pair), addr);
+        if (wait > 0) return Duration.ofNanos(wait);
+        // neither bucket is empty, so the attempt was shed until the failure budget refills
+        return Duration.ofNanos(globalFailures.waitNanos(config.getGlobalFailureCapacity(), config.getGlobalFailureRefillInterval(), now));
+    }
+
+    private long wait(final Bucket bucket, final Duration refillInterval, final long now) {
+        return bucket == null ? 0 : bucket.waitNanos(Integer.MAX_VALUE, refillInterval, now);
+    }
+
+    public void onFailure(final String username, final String address) {
+        if (!config.isEnabled()) return;
+        final long now = System.nanoTime();
+        globalFailures.acquire(config.getGlobalFailureCapacity(), config.getGlobalFailureRefillInterval(), now);
+        final Bucket pair = get(pairs, pair(username, address));
+        if (pair != null) {
+            pair.fail(config.getFreeFailures(), config.getBaseBackoff(), config.getMaxBackoff(), now);
+        }
+        // the address only remembers it has been failing, for shedding; it is never blocked
+        final Bucket addr = get(addresses, address);
+        if (addr != null) {
+            addr.countFailure();
+        }
+    }
+
+    public void onSuccess(final String username, final String address) {
+        if (!config.isEnabled()) return;
+        final String pair = pair(username, address);
+        if (pair != null) {
+            pairs.invalidate(key(pair));
+        }
+        final Bucket addr = get(addresses, address);
+        if (addr != null) {
+            addr.clearFailures();
+        }
+    }
+
+    private static Bucket bucket(final Cache<String, Bucket> cache, final String key, final int capacity, final long now) {
+        if (key == null) return null;
+        try {
+            return cache.get(key(key), () -> new Bucket(capacity, now));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean acquire(final Bucket bucket, final int capacity, final Duration refillInterval, final long now) {
+        return bucket == null || bucket.acquire(capacity, refillInterval, now);
+    }
+
+    private static boolean hasFailures(final Bucket bucket) {
+        return bucket != null && bucket.state.get().failures > 0;
+    }
+
+    private static Bucket get(final Cache<String, Bucket> cache, final String key) {
+        return key == null ? null : cache.getIfPresent(key(key));
+    }
+
+    private static String pair(final String username, final String address) {
+        if (username == null) return null;
+        return username + '\u0000' + (address != null ? address : "");
+    }
+
+    private static String key(final String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    static final class Bucket {
+
+        private final AtomicReference<State> state;
+
+        Bucket(final int capacity, final long now) {
+            this.state = new AtomicReference<>(new State(capacity, now, 0, now));
+        }
+
+        boolean isBlocked(final long now) {
+            return now - state.get().blockedUntil < 0;
+        }
+
+        double peek(final int capacity, final Duration refillInterval, final long now) {
+            return state.get().tokens(capacity, refillInterval, now);
+        }
+
+        // time until the bucket is unblocked and holds a whole token
+        long waitNanos(final int capacity, final Duration refillInterval, final long now) {
+            final State current = state.get();
+            final long blocked = Math.max(0, current.blockedUntil - now);
+            final double tokens = current.tokens(capacity, refillInterval, now);
+            final long refill = tokens >= 1 ? 0 : (long) ((1 - tokens) * refillInterval.toNanos());
+            return Math.max(blocked, refill);
+        }
+
+        boolean acquire(final int capacity, final Duration refillInterval, final long now) {
+            while (true) {
+                final State current = state.get();
+                if (now - current.blockedUntil < 0) return false;
+                final double tokens = current.tokens(capacity, refillInterval, now);
+                if (tokens < 1) return false;
+                if (state.compareAndSet(current, new State(tokens - 1, now, current.failures, current.blockedUntil))) {
+                    return true;
+                }
+            }
+        }
+
+        void fail(final int freeFailures, final Duration baseBackoff, final Duration maxBackoff, final long now) {
+            state.updateAndGet((current) -> {
+                final int failures = current.failures + 1;
+                long blockedUntil = current.blockedUntil;
+                if (failures > freeFailures) {
+                    final int exponent = Math.min(failures - freeFailures - 1, 30);
+                    final long backoff = Math.min(maxBackoff.toNanos(), baseBackoff.toNanos() << exponent);
+                    blockedUntil = now + (backoff > 0 ? backoff : maxBackoff.toNanos());
+                }
+                return new State(current.tokens, current.updatedAt, failures, blockedUntil);
+            });
+        }
+
+        void countFailure() {
+            state.updateAndGet((current) -> new State(current.tokens, current.updatedAt, current.failures + 1, current.blockedUntil));
+        }
+
+        void clearFailures() {
+            state.updateAndGet((current) -> new State(current.tokens, current.updatedAt, 0, current.updatedAt));
+        }
+
+    }
+
+    private static final class State {
+
+        private final double tokens;
+        private final long updatedAt;
+        private final int failures;
+        private final long blockedUntil;
+
+        private State(final double tokens, final long updatedAt, final int failures, final long blockedUntil) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+            this.failures = failures;
+            this.blockedUntil = blockedUntil;
+        }
+
+        private double tokens(final int capacity, final Duration refillInterval, final long now) {
+            final double refilled = (double) (now - updatedAt) / refillInterval.toNanos();
+            return Math.min(capacity, tokens + Math.max(0, refilled));
+        }
+
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.pedrozc90.core.authentication;
 
+import com.pedrozc90.core.config.RefreshTokenRotationConfigurationProperties;
 import com.pedrozc90.core.exceptions.TokenNotFoundException;
 import com.pedrozc90.core.utils.AuthenticationUtils;
 import com.pedrozc90.token.models.RefreshToken;
@@ -35,6 +36,9 @@ public class RefreshTokenHandler implements RefreshTokenPersistence {
     @Inject
     private UserRepository userRepository;
 
+    @Inject
+    private RefreshTokenRotationConfigurationProperties rotationConfig;
+
     @Override
     @EventListener
     public void persistToken(final RefreshTokenGeneratedEvent event) {
@@ -55,7 +59,10 @@ public class RefreshTokenHandler implements RefreshTokenPersistence {
 
             final RefreshToken rt = refreshTokenOpt.get();
             if (rt.isRevoked()) {
+                // a retired token never reaches the login handler, so replays are caught here
+                refreshTokenRepository.revokeIfReplayed(refreshToken, rotationConfig.getReuseGracePeriod());
                 emitter.error(new OauthErrorResponseException(INVALID_GRANT, "refresh token revoked", null));
+                return;
             }
 
             final Optional<User> userOpt = userRepository.findByUsername(rt.getUsername());
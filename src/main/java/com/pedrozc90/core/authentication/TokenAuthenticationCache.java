@@ -0,0 +1,143 @@
+package com.pedrozc90.core.authentication;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.Striped;
+import com.pedrozc90.core.config.TokenCacheConfigurationProperties;
+import com.pedrozc90.core.utils.TokenUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import io.micronaut.security.authentication.Authentication;
+import jakarta.inject.Singleton;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Bounded cache of already validated bearer tokens, keyed by the token SHA-256 digest.
+ * Entries are discarded once the token {@code exp} claim is reached or after the configured
+ * maximum ttl, whichever comes first. Entries are also indexed by username, so changes to a user drop its
+ * tokens and they go through the validators again on their next use.
+ * <p>
+ * {@link #put} and {@link #invalidate} hold the same per-username lock, so an invalidation never misses
+ * an entry being written. Callers take a {@link #stamp()} before validating a token and hand it to
+ * {@code put}; if any user was invalidated in between, the result is not cached, since it may have been
+ * validated against the old state of the user.
+ */
+@Singleton
+public class TokenAuthenticationCache {
+
+    private static final String EXPIRATION_CLAIM = "exp";
+
+    private final boolean enabled;
+    private final Cache<String, Entry> cache;
+    private final Map<String, Set<String>> keysByUsername = new ConcurrentHashMap<>();
+    private final Striped<Lock> locks = Striped.lock(64);
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TokenAuthenticationCache(final TokenCacheConfigurationProperties config, final MeterRegistry registry) {
+        this.enabled = config.isEnabled();
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(config.getMaximumSize())
+            .expireAfterWrite(config.getMaximumTtl())
+            .recordStats()
+            .removalListener(this::onRemoval)
+            .build();
+        GuavaCacheMetrics.monitor(registry, cache, "token.authentication");
+    }
+
+    public Optional<Authentication> get(final String token) {
+        if (!enabled) return Optional.empty();
+        final String key = TokenUtils.digest(token);
+        final Entry entry = cache.getIfPresent(key);
+        if (entry == null) return Optional.empty();
+        if (entry.isExpired()) {
+            cache.invalidate(key);
+            return Optional.empty();
+        }
+        return Optional.of(entry.authentication);
+    }
+
+    // taken before a token is validated and passed back to put
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    public void put(final String token, final Authentication authentication, final long stamp) {
+        if (!enabled) return;
+        final Instant expiresAt = getExpiration(authentication);
+        if (expiresAt == null) return;
+        final String key = TokenUtils.digest(token);
+        final String username = authentication.getName();
+        final Lock lock = locks.get(username);
+        lock.lock();
+        try {
+            if (invalidations.get() != stamp) return;
+            keysByUsername.computeIfAbsent(username, (u) -> ConcurrentHashMap.newKeySet()).add(key);
+            cache.put(key, new Entry(authentication, expiresAt));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // drops every cached token of the user, called when the user is updated, deactivated or removed
+    public void invalidate(final String username) {
+        if (!enabled || username == null) return;
+        final Lock lock = locks.get(username);
+        lock.lock();
+        try {
+            invalidations.incrementAndGet();
+            final Set<String> keys = keysByUsername.remove(username);
+            if (keys != null) {
+                cache.invalidateAll(keys);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onRemoval(final RemovalNotification<String, Entry> notification) {
+        // a replaced entry keeps its key in the index
+        if (notification.getCause() == RemovalCause.REPLACED || notification.getValue() == null) return;
+        final String key = notification.getKey();
+        keysByUsername.computeIfPresent(notification.getValue().authentication.getName(), (u, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static Instant getExpiration(final Authentication authentication) {
+        final Object exp = authentication.getAttributes().get(EXPIRATION_CLAIM);
+        if (exp instanceof Date) {
+            return ((Date) exp).toInstant();
+        } else if (exp instanceof Number) {
+            return Instant.ofEpochSecond(((Number) exp).longValue());
+        }
+        return null;
+    }
+
+    private static class Entry {
+
+        private final Authentication authentication;
+        private final Instant expiresAt;
+
+        private Entry(final Authentication authentication, final Instant expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return !Instant.now().isBefore(expiresAt);
+        }
+
+    }
+
+}
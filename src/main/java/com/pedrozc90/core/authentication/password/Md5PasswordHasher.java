@@ -0,0 +1,38 @@
+package com.pedrozc90.core.authentication.password;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.regex.Pattern;
+
+/**
+ * Legacy unsalted md5 hashes, only kept to verify rows that were not upgraded yet.
+ */
+public class Md5PasswordHasher implements PasswordHasher {
+
+    private static final Pattern MD5_HEX = Pattern.compile("^[0-9a-f]{32}$");
+
+    @Override
+    public String hash(final String password) {
+        return DigestUtils.md5Hex(password);
+    }
+
+    @Override
+    public boolean supports(final String encoded) {
+        return encoded != null && MD5_HEX.matcher(encoded).matches();
+    }
+
+    @Override
+    public boolean matches(final String password, final String encoded) {
+        final byte[] expected = encoded.getBytes(StandardCharsets.US_ASCII);
+        final byte[] actual = hash(password).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    @Override
+    public boolean needsRehash(final String encoded) {
+        return true;
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.pedrozc90.core.authentication.password;
+
+public interface PasswordHasher {
+
+    String hash(final String password);
+
+    boolean supports(final String encoded);
+
+    boolean matches(final String password, final String encoded);
+
+    boolean needsRehash(final String encoded);
+
+}
@@ -0,0 +1,79 @@
+package com.pedrozc90.core.authentication.password;
+
+import com.pedrozc90.core.concurrent.BoundedExecutor;
+import com.pedrozc90.core.concurrent.BoundedExecutorFactory;
+import com.pedrozc90.core.config.PasswordConfigurationProperties;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Hashes and verifies passwords on the dedicated hashing pool so expensive
+ * key derivations never run on request threads.
+ */
+@Singleton
+public class PasswordHashingEngine {
+
+    private final PasswordHasher current;
+    private final List<PasswordHasher> hashers;
+    private final BoundedExecutor executor;
+
+    // verified against when the user does not exist, so both paths cost the same
+    private volatile String dummy;
+
+    public PasswordHashingEngine(final PasswordConfigurationProperties config,
+                                 @Named(BoundedExecutorFactory.HASHING) final BoundedExecutor executor) {
+        this.current = new Pbkdf2PasswordHasher(config.getIterations(), config.getSaltLength(), config.getKeyLength());
+        this.hashers = List.of(current, new Md5PasswordHasher());
+        this.executor = executor;
+    }
+
+    public Mono<String> encode(final String password) {
+        return encode(password, executor);
+    }
+
+    // bulk work hashes on its own pool so it cannot starve logins on the shared one
+    public Mono<String> encode(final String password, final BoundedExecutor executor) {
+        return executor.submit(() -> current.hash(password));
+    }
+
+    public Mono<PasswordMatch> verify(final String password, final String encoded) {
+        return executor.submit(() -> {
+            final PasswordHasher hasher = resolve(encoded);
+            if (hasher == null) {
+                current.matches(password, getDummy());
+                return PasswordMatch.failed();
+            }
+            if (!hasher.matches(password, encoded)) {
+                // a legacy hash is cheap to check, pay for a current one too so failures cost the same
+                if (hasher != current) {
+                    current.matches(password, getDummy());
+                }
+                return PasswordMatch.failed();
+            }
+            // a matched legacy hash always costs a full derivation through the rehash
+            final String rehashed = hasher.needsRehash(encoded) ? current.hash(password) : null;
+            return new PasswordMatch(true, rehashed);
+        });
+    }
+
+    private PasswordHasher resolve(final String encoded) {
+        if (encoded == null) return null;
+        for (final PasswordHasher hasher : hashers) {
+            if (hasher.supports(encoded)) {
+                return hasher;
+            }
+        }
+        return null;
+    }
+
+    private String getDummy() {
+        if (dummy == null) {
+            dummy = current.hash("dummy");
+        }
+        return dummy;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.pedrozc90.core.authentication.password;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Optional;
+
+@Getter
+@AllArgsConstructor
+public class PasswordMatch {
+
+    private final boolean matched;
+
+    // new hash to be stored when the current one uses an outdated algorithm or cost
+    private final String rehashed;
+
+    public static PasswordMatch failed() {
+        return new PasswordMatch(false, null);
+    }
+
+    public Optional<String> getRehashed() {
+        return Optional.ofNullable(rehashed);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.pedrozc90.core.authentication.password;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Salted PBKDF2-HMAC-SHA256 hashes, encoded as {@code $pbkdf2-sha256$<iterations>$<salt>$<hash>}.
+ * The iteration count is stored with every hash, so raising it only affects new hashes.
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    public static final String ID = "pbkdf2-sha256";
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "$" + ID + "$";
+
+    private static final Base64.Encoder ENCODER = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    private final SecureRandom random = new SecureRandom();
+    private final int iterations;
+    private final int saltLength;
+    private final int keyLength;
+
+    public Pbkdf2PasswordHasher(final int iterations, final int saltLength, final int keyLength) {
+        this.iterations = iterations;
+        this.saltLength = saltLength;
+        this.keyLength = keyLength;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String hash(final String password) {
+        final byte[] salt = new byte[saltLength];
+        random.nextBytes(salt);
+        final byte[] key = derive(password, salt, iterations, keyLength);
+        return PREFIX + iterations + "$" + ENCODER.encodeToString(salt) + "$" + ENCODER.encodeToString(key);
+    }
+
+    @Override
+    public boolean supports(final String encoded) {
+        return encoded != null && encoded.startsWith(PREFIX);
+    }
+
+    @Override
+    public boolean matches(final String password, final String encoded) {
+        final Parsed parsed = parse(encoded);
+        if (parsed == null) return false;
+        final byte[] actual = derive(password, parsed.salt, parsed.iterations, parsed.key.length);
+        return MessageDigest.isEqual(parsed.key, actual);
+    }
+
+    @Override
+    public boolean needsRehash(final String encoded) {
+        final Parsed parsed = parse(encoded);
+        return parsed == null || parsed.iterations < iterations;
+    }
+
+    // a malformed hash never matches and always needs a rehash
+    private static Parsed parse(final String encoded) {
+        final String[] parts = encoded.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) return null;
+        try {
+            final Parsed parsed = new Parsed(Integer.parseInt(parts[0]), DECODER.decode(parts[1]), DECODER.decode(parts[2]));
+            return (parsed.iterations > 0 && parsed.salt.length > 0 && parsed.key.length > 0) ? parsed : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static byte[] derive(final String password, final byte[] salt, final int iterations, final int keyLength) {
+        final PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, keyLength * 8);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static final class Parsed {
+
+        private final int iterations;
+        private final byte[] salt;
+        private final byte[] key;
+
+        private Parsed(final int iterations, final byte[] salt, final byte[] key) {
+            this.iterations = iterations;
+            this.salt = salt;
+            this.key = key;
+        }
+
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.pedrozc90.core.concurrent;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.pedrozc90.core.exceptions.ApplicationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fixed size thread pool with a bounded queue. Tasks submitted while the queue is full
+ * fail fast with a 503 instead of piling up behind the workers.
+ */
+@Slf4j
+public class BoundedExecutor implements AutoCloseable {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final Timer queueTimer;
+    private final Timer executionTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedExecutor(final String name, final int threads, final int queueSize, final MeterRegistry registry) {
+        this.name = name;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueTimer = Timer.builder("executor.queue.wait")
+            .tag("name", name)
+            .register(registry);
+        this.executionTimer = Timer.builder("executor.execution")
+            .tag("name", name)
+            .register(registry);
+        this.rejectedCounter = Counter.builder("executor.rejected")
+            .tag("name", name)
+            .register(registry);
+        Gauge.builder("executor.queued", executor, (e) -> e.getQueue().size())
+            .tag("name", name)
+            .register(registry);
+        Gauge.builder("executor.active", executor, ThreadPoolExecutor::getActiveCount)
+            .tag("name", name)
+            .register(registry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return true when every worker is busy and the queue is full, so the next task would be rejected.
+     */
+    public boolean isSaturated() {
+        return executor.getQueue().remainingCapacity() == 0
+            && executor.getActiveCount() >= executor.getMaximumPoolSize();
+    }
+
+    public <T> Mono<T> submit(final Callable<T> task) {
+        return Mono.create((sink) -> {
+            final AtomicBoolean cancelled = new AtomicBoolean(false);
+            sink.onCancel(() -> cancelled.set(true));
+
+            final long submittedAt = System.nanoTime();
+            try {
+                executor.execute(() -> {
+                    final long startedAt = System.nanoTime();
+                    queueTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                    if (cancelled.get()) return;
+                    try {
+                        sink.success(task.call());
+                    } catch (Throwable t) {
+                        sink.error(t);
+                    } finally {
+                        executionTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejectedCounter.increment();
+                log.warn("{} executor saturated, rejecting task.", name);
+                sink.error(ApplicationException.of("Service is busy, try again later.").serviceUnavailable());
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
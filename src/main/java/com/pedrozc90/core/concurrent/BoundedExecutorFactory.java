@@ -0,0 +1,49 @@
+package com.pedrozc90.core.concurrent;
+
+import com.pedrozc90.core.config.ChunksConfigurationProperties;
+import com.pedrozc90.core.config.ImportConfigurationProperties;
+import com.pedrozc90.core.config.LoginConfigurationProperties;
+import com.pedrozc90.core.config.PasswordConfigurationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+@Factory
+public class BoundedExecutorFactory {
+
+    public static final String LOGIN = "login";
+    public static final String HASHING = "hashing";
+    public static final String CHUNKS = "chunks";
+    public static final String IMPORT = "import";
+
+    @Singleton
+    @Named(LOGIN)
+    @Bean(preDestroy = "close")
+    public BoundedExecutor loginExecutor(final LoginConfigurationProperties config, final MeterRegistry registry) {
+        return new BoundedExecutor(LOGIN, config.getThreads(), config.getQueueSize(), registry);
+    }
+
+    @Singleton
+    @Named(HASHING)
+    @Bean(preDestroy = "close")
+    public BoundedExecutor hashingExecutor(final PasswordConfigurationProperties config, final MeterRegistry registry) {
+        return new BoundedExecutor(HASHING, config.getThreads(), config.getQueueSize(), registry);
+    }
+
+    @Singleton
+    @Named(CHUNKS)
+    @Bean(preDestroy = "close")
+    public BoundedExecutor chunksExecutor(final ChunksConfigurationProperties config, final MeterRegistry registry) {
+        return new BoundedExecutor(CHUNKS, config.getThreads(), config.getQueueSize(), registry);
+    }
+
+    @Singleton
+    @Named(IMPORT)
+    @Bean(preDestroy = "close")
+    public BoundedExecutor importExecutor(final ImportConfigurationProperties config, final MeterRegistry registry) {
+        return new BoundedExecutor(IMPORT, config.getHashingThreads(), config.getHashingQueueSize(), registry);
+    }
+
+}
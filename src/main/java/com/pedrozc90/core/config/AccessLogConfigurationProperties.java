@@ -0,0 +1,93 @@
+package com.pedrozc90.core.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("application.access-log")
+public class AccessLogConfigurationProperties {
+
+    private static final boolean DEFAULT_ASYNC = true;
+    private static final int DEFAULT_QUEUE_SIZE = 8192;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration DEFAULT_SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+    private static final int DEFAULT_PARTITIONS_AHEAD = 3;
+    private static final boolean DEFAULT_DETACH_EXPIRED = false;
+
+    private boolean async = DEFAULT_ASYNC;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private Duration flushInterval = DEFAULT_FLUSH_INTERVAL;
+    private Duration shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
+    private int partitionsAhead = DEFAULT_PARTITIONS_AHEAD;
+    private Duration retention;
+    private boolean detachExpired = DEFAULT_DETACH_EXPIRED;
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(final boolean async) {
+        this.async = async;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(final int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(final Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(final Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    public int getPartitionsAhead() {
+        return partitionsAhead;
+    }
+
+    public void setPartitionsAhead(final int partitionsAhead) {
+        this.partitionsAhead = partitionsAhead;
+    }
+
+    // monthly partitions older than this are removed, null keeps everything
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(final Duration retention) {
+        this.retention = retention;
+    }
+
+    // detach expired partitions instead of dropping them, so they can be archived first
+    public boolean isDetachExpired() {
+        return detachExpired;
+    }
+
+    public void setDetachExpired(final boolean detachExpired) {
+        this.detachExpired = detachExpired;
+    }
+
+}
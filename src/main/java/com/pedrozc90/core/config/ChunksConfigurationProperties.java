@@ -0,0 +1,55 @@
+package com.pedrozc90.core.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+@ConfigurationProperties("application.chunks")
+public class ChunksConfigurationProperties {
+
+    private static final int DEFAULT_THREADS = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+    private static final int DEFAULT_QUEUE_SIZE = 64;
+    private static final long DEFAULT_CHUNK_SIZE = 10_000;
+    private static final int DEFAULT_PAGE_SIZE = 500;
+
+    // each thread holds a pooled connection while its chunk runs, keep it below the pool size
+    private int threads = DEFAULT_THREADS;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+
+    // width of the id range handled by a single chunk
+    private long chunkSize = DEFAULT_CHUNK_SIZE;
+
+    // rows loaded and handed to the task at a time inside a chunk
+    private int pageSize = DEFAULT_PAGE_SIZE;
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(final int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(final long chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(final int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.pedrozc90.core.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("application.events")
+public class EventsConfigurationProperties {
+
+    private static final DispatchMode DEFAULT_MODE = DispatchMode.ASYNC;
+    private static final OverflowPolicy DEFAULT_OVERFLOW_POLICY = OverflowPolicy.DROP;
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int DEFAULT_BATCH_SIZE = 256;
+    private static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(100);
+    private static final Duration DEFAULT_BLOCK_TIMEOUT = Duration.ofMillis(50);
+
+    private DispatchMode mode = DEFAULT_MODE;
+    private OverflowPolicy overflowPolicy = DEFAULT_OVERFLOW_POLICY;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private Duration pollInterval = DEFAULT_POLL_INTERVAL;
+    private Duration blockTimeout = DEFAULT_BLOCK_TIMEOUT;
+
+    public DispatchMode getMode() {
+        return mode;
+    }
+
+    public void setMode(final DispatchMode mode) {
+        this.mode = mode;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(final OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(final int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(final Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Duration getBlockTimeout() {
+        return blockTimeout;
+    }
+
+    public void setBlockTimeout(final Duration blockTimeout) {
+        this.blockTimeout = blockTimeout;
+    }
+
+    public enum DispatchMode {
+        // listeners run on the publishing thread
+        SYNC,
+        // events are buffered and delivered in batches by a background worker
+        ASYNC
+    }
+
+    public enum OverflowPolicy {
+        // discard the event being published
+        DROP,
+        // discard the oldest buffered event to make room
+        DROP_OLDEST,
+        // wait up to block-timeout for room, then discard
+        BLOCK
+    }
+
+}
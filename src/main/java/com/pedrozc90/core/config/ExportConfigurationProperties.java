@@ -0,0 +1,59 @@
+package com.pedrozc90.core.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("application.export")
+public class ExportConfigurationProperties {
+
+    private static final int DEFAULT_FETCH_SIZE = 1_000;
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    private static final int DEFAULT_MAX_CONCURRENT = 2;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(10);
+
+    // rows pulled per round trip from the server-side cursor
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
+    // bytes buffered before a chunk is written to the response
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    // exports running at once, each one holds a pooled connection and a transaction until it ends
+    private int maxConcurrent = DEFAULT_MAX_CONCURRENT;
+
+    // an export still running after this long, e.g. behind a slow client, is aborted and its cursor closed
+    private Duration timeout = DEFAULT_TIMEOUT;
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(final int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(final int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(final int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(final Duration timeout) {
+        this.timeout = timeout;
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.pedrozc90.core.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.convert.format.ReadableBytes;
+
+@ConfigurationProperties("application.import")
+public class ImportConfigurationProperties {
+
+    private static final long DEFAULT_MAX_REQUEST_SIZE = 32L * 1024 * 1024;
+    private static final int DEFAULT_MAX_ROWS = 100_000;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int DEFAULT_LOOKUP_SIZE = 1_000;
+    private static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+    private static final int DEFAULT_HASHING_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+    private static final int DEFAULT_HASHING_QUEUE_SIZE = 64;
+
+    // body size accepted by the import endpoint only, every other route keeps micronaut.server.max-request-size
+    private long maxRequestSize = DEFAULT_MAX_REQUEST_SIZE;
+
+    // rows accepted by a single import request
+    private int maxRows = DEFAULT_MAX_ROWS;
+
+    // rows inserted per jdbc batch, each batch is flushed, cleared and committed on its own
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    // values per IN list when checking emails and usernames already taken
+    private int lookupSize = DEFAULT_LOOKUP_SIZE;
+
+    // rows validated concurrently
+    private int parallelism = DEFAULT_PARALLELISM;
+
+    // imports hash on their own pool so they never queue ahead of logins on the hashing pool; each row
+    // costs one full derivation (a few hundred ms of cpu at the default iterations), so an import
+    // takes roughly rows * that cost / hashing-threads
+    private int hashingThreads = DEFAULT_HASHING_THREADS;
+    private int hashingQueueSize = DEFAULT_HASHING_QUEUE_SIZE;
+
+    public long getMaxRequestSize() {
+        return maxRequestSize;
+    }
+
+    public void setMaxRequestSize(@ReadableBytes final long maxRequestSize) {
+        this.maxRequestSize = maxRequestSize;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public void setMaxRows(final int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getLookupSize() {
+        return lookupSize;
+    }
+
+    public void setLookupSize(final int lookupSize) {
+        this.lookupSize = lookupSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(final int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getHashingThreads() {
+        return hashingThreads;
+    }
+
+    public void setHashingThreads(final int hashingThreads) {
+        this.hashingThreads = hashingThreads;
+    }
+
+    public int getHashingQueueSize() {
+        return hashingQueueSize;
+    }
+
+    public void setHashingQueueSize(final int hashingQueueSize) {
+        this.hashingQueueSize = hashingQueueSize;
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.pedrozc90.core.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+@ConfigurationProperties("application.login")
+public class LoginConfigurationProperties {
+
+    private static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int DEFAULT_QUEUE_SIZE = 128;
+
+    private int threads = DEFAULT_THREADS;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(final int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.pedrozc90.core.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("application.login.throttle")
+public class LoginThrottleConfigurationProperties {
+
+    private static final boolean DEFAULT_ENABLED = true;
+    private static final long DEFAULT_MAXIMUM_KEYS = 100_000;
+    private static final int DEFAULT_USERNAME_CAPACITY = 5;
+    private static final Duration DEFAULT_USERNAME_REFILL_INTERVAL = Duration.ofSeconds(12);
+    private static final int DEFAULT_ADDRESS_CAPACITY = 50;
+    private static final Duration DEFAULT_ADDRESS_REFILL_INTERVAL = Duration.ofSeconds(1);
+    private static final int DEFAULT_FREE_FAILURES = 3;
+    private static final Duration DEFAULT_BASE_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration DEFAULT_MAX_BACKOFF = Duration.ofMinutes(15);
+    private static final int DEFAULT_GLOBAL_FAILURE_CAPACITY = 200;
+    private static final Duration DEFAULT_GLOBAL_FAILURE_REFILL_INTERVAL = Duration.ofMillis(50);
+
+    private boolean enabled = DEFAULT_ENABLED;
+    private long maximumKeys = DEFAULT_MAXIMUM_KEYS;
+    // attempts per username from any address; the backoff after failures is kept per (username, client address) pair
+    private int usernameCapacity = DEFAULT_USERNAME_CAPACITY;
+    // time to earn back one attempt
+    private Duration usernameRefillInterval = DEFAULT_USERNAME_REFILL_INTERVAL;
+    private int addressCapacity = DEFAULT_ADDRESS_CAPACITY;
+    private Duration addressRefillInterval = DEFAULT_ADDRESS_REFILL_INTERVAL;
+    // consecutive failures allowed before the exponential backoff kicks in
+    private int freeFailures = DEFAULT_FREE_FAILURES;
+    private Duration baseBackoff = DEFAULT_BASE_BACKOFF;
+    private Duration maxBackoff = DEFAULT_MAX_BACKOFF;
+    // once this failure budget is spent, keys with recent failures are shed until it refills
+    private int globalFailureCapacity = DEFAULT_GLOBAL_FAILURE_CAPACITY;
+    private Duration globalFailureRefillInterval = DEFAULT_GLOBAL_FAILURE_REFILL_INTERVAL;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumKeys() {
+        return maximumKeys;
+    }
+
+    public void setMaximumKeys(final long maximumKeys) {
+        this.maximumKeys = maximumKeys;
+    }
+
+    public int getUsernameCapacity() {
+        return usernameCapacity;
+    }
+
+    public void setUsernameCapacity(final int usernameCapacity) {
+        this.usernameCapacity = usernameCapacity;
+    }
+
+    public Duration getUsernameRefillInterval() {
+        return usernameRefillInterval;
+    }
+
+    public void setUsernameRefillInterval(final Duration usernameRefillInterval) {
+        this.usernameRefillInterval = usernameRefillInterval;
+    }
+
+    public int getAddressCapacity() {
+        return addressCapacity;
+    }
+
+    public void setAddressCapacity(final int addressCapacity) {
+        this.addressCapacity = addressCapacity;
+    }
+
+    public Duration getAddressRefillInterval() {
+        return addressRefillInterval;
+    }
+
+    public void setAddressRefillInterval(final Duration addressRefillInterval) {
+        this.addressRefillInterval = addressRefillInterval;
+    }
+
+    public int getFreeFailures() {
+        return freeFailures;
+    }
+
+    public void setFreeFailures(final int freeFailures) {
+        this.freeFailures = freeFailures;
+    }
+
+    public Duration getBaseBackoff() {
+        return baseBackoff;
+    }
+
+    public void setBaseBackoff(final Duration baseBackoff) {
+        this.baseBackoff = baseBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(final Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public int getGlobalFailureCapacity() {
+        return globalFailureCapacity;
+    }
+
+    public void setGlobalFailureCapacity(final int globalFailureCapacity) {
+        this.globalFailureCapacity = globalFailureCapacity;
+    }
+
+    public Duration getGlobalFailureRefillInterval() {
+        return globalFailureRefillInterval;
+    }
+
+    public void setGlobalFailureRefillInterval(final Duration globalFailureRefillInterval) {
+        this.globalFailureRefillInterval = globalFailureRefillInterval;
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.pedrozc90.core.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+@ConfigurationProperties("application.password")
+public class PasswordConfigurationProperties {
+
+    private static final int DEFAULT_ITERATIONS = 310_000;
+    private static final int DEFAULT_SALT_LENGTH = 16;
+    private static final int DEFAULT_KEY_LENGTH = 32;
+    private static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int DEFAULT_QUEUE_SIZE = 256;
+
+    private int iterations = DEFAULT_ITERATIONS;
+    private int saltLength = DEFAULT_SALT_LENGTH;
+    private int keyLength = DEFAULT_KEY_LENGTH;
+    private int threads = DEFAULT_THREADS;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(final int iterations) {
+        this.iterations = iterations;
+    }
+
+    public int getSaltLength() {
+        return saltLength;
+    }
+
+    public void setSaltLength(final int saltLength) {
+        this.saltLength = saltLength;
+    }
+
+    public int getKeyLength() {
+        return keyLength;
+    }
+
+    public void setKeyLength(final int keyLength) {
+        this.keyLength = keyLength;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(final int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+}
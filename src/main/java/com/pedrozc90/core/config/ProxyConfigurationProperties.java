@@ -0,0 +1,22 @@
+package com.pedrozc90.core.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties("application.proxy")
+public class ProxyConfigurationProperties {
+
+    // ip literals or cidr ranges of the reverse proxies allowed to set x-forwarded-for, empty ignores the header
+    private List<String> trustedAddresses = new ArrayList<>();
+
+    public List<String> getTrustedAddresses() {
+        return trustedAddresses;
+    }
+
+    public void setTrustedAddresses(final List<String> trustedAddresses) {
+        this.trustedAddresses = trustedAddresses;
+    }
+
+}
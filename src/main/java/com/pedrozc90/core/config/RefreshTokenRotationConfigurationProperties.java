@@ -0,0 +1,23 @@
+package com.pedrozc90.core.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("application.refresh-token")
+public class RefreshTokenRotationConfigurationProperties {
+
+    private static final Duration DEFAULT_REUSE_GRACE_PERIOD = Duration.ofSeconds(10);
+
+    // a retired token presented again within this window is treated as a concurrent refresh, after it as a replay
+    private Duration reuseGracePeriod = DEFAULT_REUSE_GRACE_PERIOD;
+
+    public Duration getReuseGracePeriod() {
+        return reuseGracePeriod;
+    }
+
+    public void setReuseGracePeriod(final Duration reuseGracePeriod) {
+        this.reuseGracePeriod = reuseGracePeriod;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.pedrozc90.core.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("application.token-cache")
+public class TokenCacheConfigurationProperties {
+
+    private static final boolean DEFAULT_ENABLED = true;
+    private static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+    private static final Duration DEFAULT_MAXIMUM_TTL = Duration.ofMinutes(15);
+
+    private boolean enabled = DEFAULT_ENABLED;
+    private long maximumSize = DEFAULT_MAXIMUM_SIZE;
+    private Duration maximumTtl = DEFAULT_MAXIMUM_TTL;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(final long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getMaximumTtl() {
+        return maximumTtl;
+    }
+
+    public void setMaximumTtl(final Duration maximumTtl) {
+        this.maximumTtl = maximumTtl;
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.pedrozc90.core.data;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Batch write path shared by the repositories: statements are grouped into jdbc batches of
+ * {@code batchSize} and the persistence context is flushed and cleared after every batch, so memory
+ * stays bounded and round trips drop by roughly the batch size.
+ * <p>
+ * Entities returned are detached once their batch is flushed. Every flush is recorded in the
+ * {@value #FLUSH_TIMER} timer and every call in {@value #WRITE_TIMER}, both tagged with the operation.
+ */
+@Slf4j
+final class Batches {
+
+    static final String FLUSH_TIMER = "repository.batch.flush";
+    static final String WRITE_TIMER = "repository.batch.write";
+
+    private Batches() {
+    }
+
+    static <T, R> List<R> write(final EntityManager em, final MeterRegistry registry, final String operation,
+                                final Iterable<T> entities, final int batchSize, final Function<T, R> action) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batch size must be positive");
+        }
+
+        final Session session = em.unwrap(Session.class);
+        final Integer previous = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+
+        final Timer flushTimer = Timer.builder(FLUSH_TIMER).tag("operation", operation).register(registry);
+        final List<R> result = new ArrayList<>();
+        final long start = System.nanoTime();
+        long batchStart = start;
+        int batch = 0;
+        int pending = 0;
+        try {
+            for (final T entity : entities) {
+                if (entity == null) continue;
+                result.add(action.apply(entity));
+                if (++pending >= batchSize) {
+                    flush(em, flushTimer, operation, ++batch, pending, batchStart);
+                    pending = 0;
+                    batchStart = System.nanoTime();
+                }
+            }
+            if (pending > 0) {
+                flush(em, flushTimer, operation, ++batch, pending, batchStart);
+            }
+        } finally {
+            session.setJdbcBatchSize(previous);
+        }
+
+        Timer.builder(WRITE_TIMER).tag("operation", operation).register(registry)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.debug("{}: {} rows written in {} batches in {} ms", operation, result.size(), batch, millis(start));
+        return result;
+    }
+
+    private static void flush(final EntityManager em, final Timer timer, final String operation, final int batch, final int size,
+                              final long start) {
+        em.flush();
+        em.clear();
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.debug("{}: batch {} of {} rows flushed in {} ms", operation, batch, size, millis(start));
+    }
+
+    private static long millis(final long start) {
+        return (System.nanoTime() - start) / 1_000_000L;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.pedrozc90.core.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class ChunkProgress {
+
+    private final int totalChunks;
+
+    private final int completedChunks;
+
+    private final long processedRows;
+
+    // every id below it has been processed, pass it back to resume
+    private final long resumeFrom;
+
+    // set when a chunk failed and processing stopped
+    private final String error;
+
+    public boolean isDone() {
+        return error == null && completedChunks == totalChunks;
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.pedrozc90.core.data;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * Work applied to the entities of one id-range chunk, one page at a time. Every page of a chunk runs
+ * inside the same chunk transaction, on the chunk's own {@link EntityManager}, which is flushed and
+ * cleared between pages; chunks may run concurrently.
+ */
+@FunctionalInterface
+public interface ChunkTask<E> {
+
+    void process(final EntityManager em, final List<E> entities) throws Exception;
+
+}
@@ -0,0 +1,191 @@
+package com.pedrozc90.core.data;
+
+import com.pedrozc90.core.concurrent.BoundedExecutor;
+import com.pedrozc90.core.concurrent.BoundedExecutorFactory;
+import com.pedrozc90.core.config.ChunksConfigurationProperties;
+import com.pedrozc90.core.querydsl.JPAQuery;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import io.micronaut.core.annotation.Nullable;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.PersistenceUnitUtil;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Splits a table into id-range chunks and processes them concurrently on the chunks pool, each chunk
+ * with its own {@link EntityManager} and transaction, so maintenance jobs scale with cores and
+ * connections instead of running on one thread. Each chunk is read in pages of {@code pageSize} rows,
+ * so a wide chunk never has to fit in memory at once.
+ * <p>
+ * Progress is reported after every chunk. Chunks finish out of order, so the reported
+ * {@code resumeFrom} is the start of the lowest chunk not yet completed; passing it back resumes the
+ * job without skipping rows. A failed chunk is rolled back and stops the run.
+ */
+@Slf4j
+@Singleton
+public class ChunkedProcessor {
+
+    private final EntityManagerFactory emf;
+    private final BoundedExecutor executor;
+    private final ChunksConfigurationProperties config;
+
+    public ChunkedProcessor(final EntityManagerFactory emf,
+                            @Named(BoundedExecutorFactory.CHUNKS) final BoundedExecutor executor,
+                            final ChunksConfigurationProperties config) {
+        this.emf = emf;
+        this.executor = executor;
+        this.config = config;
+    }
+
+    public <E> ChunkProgress process(final CrudRepository<E, Long> repository, final ChunkTask<E> task) {
+        return process(repository, task, null, null);
+    }
+
+    public <E> ChunkProgress process(final CrudRepository<E, Long> repository,
+                                     final ChunkTask<E> task,
+                                     @Nullable final Long resumeFrom,
+                                     @Nullable final Consumer<ChunkProgress> listener) {
+        final EntityPath<E> entity = repository.entity;
+        final NumberPath<Long> id = Expressions.numberPath(Long.class, entity, "id");
+
+        final long[] bounds = bounds(entity, id);
+        if (bounds == null) {
+            return new ChunkProgress(0, 0, 0, resumeFrom != null ? resumeFrom : 0, null);
+        }
+
+        final long start = (resumeFrom != null) ? Math.max(resumeFrom, bounds[0]) : bounds[0];
+        final long end = bounds[1] + 1;
+        final long chunkSize = config.getChunkSize();
+        final int total = (start >= end) ? 0 : (int) ((end - start + chunkSize - 1) / chunkSize);
+
+        final Tracker tracker = new Tracker(total, start, chunkSize, end, listener);
+        final long startedAt = System.nanoTime();
+
+        try {
+            Flux.range(0, total)
+                .flatMap((index) -> {
+                    final long lo = start + index * chunkSize;
+                    final long hi = Math.min(lo + chunkSize, end);
+                    return executor.submit(() -> runChunk(entity, id, lo, hi, task))
+                        .doOnNext((rows) -> tracker.completed(index, rows));
+                }, config.getThreads())
+                .blockLast();
+        } catch (RuntimeException e) {
+            log.error("{} chunked processing failed: {}", entity.getType().getSimpleName(), e.getMessage(), e);
+            return tracker.failed(e);
+        }
+
+        final ChunkProgress progress = tracker.snapshot(null);
+        log.info("{} chunked processing: {} chunks, {} rows in {} ms", entity.getType().getSimpleName(), total,
+            progress.getProcessedRows(), (System.nanoTime() - startedAt) / 1_000_000L);
+        return progress;
+    }
+
+    // min and max id, or null for an empty table
+    private long[] bounds(final EntityPath<?> entity, final NumberPath<Long> id) {
+        final EntityManager em = emf.createEntityManager();
+        try {
+            final Tuple tuple = new JPAQuery<Void>(em).from(entity).select(id.min(), id.max()).fetchOne();
+            if (tuple == null || tuple.get(0, Long.class) == null) return null;
+            return new long[] { tuple.get(0, Long.class), tuple.get(1, Long.class) };
+        } finally {
+            em.close();
+        }
+    }
+
+    // reads the chunk in id-ordered pages so only one page is managed at a time
+    private <E> Integer runChunk(final EntityPath<E> entity, final NumberPath<Long> id, final long lo, final long hi,
+                                 final ChunkTask<E> task) throws Exception {
+        final EntityManager em = emf.createEntityManager();
+        final EntityTransaction tx = em.getTransaction();
+        final PersistenceUnitUtil util = emf.getPersistenceUnitUtil();
+        final int pageSize = config.getPageSize();
+        try {
+            tx.begin();
+            int rows = 0;
+            long from = lo;
+            while (from < hi) {
+                final List<E> page = new JPAQuery<E>(em).from(entity)
+                    .select(entity)
+                    .where(id.goe(from), id.lt(hi))
+                    .orderBy(id.asc())
+                    .limit(pageSize)
+                    .fetch();
+                if (page.isEmpty()) break;
+
+                task.process(em, page);
+                rows += page.size();
+                if (page.size() < pageSize) break;
+
+                from = (Long) util.getIdentifier(page.get(page.size() - 1)) + 1;
+                em.flush();
+                em.clear();
+            }
+            tx.commit();
+            return rows;
+        } catch (Exception e) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    private static final class Tracker {
+
+        private final int total;
+        private final long start;
+        private final long chunkSize;
+        private final long end;
+        private final Consumer<ChunkProgress> listener;
+        private final BitSet done = new BitSet();
+        private int completed;
+        private long rows;
+
+        private Tracker(final int total, final long start, final long chunkSize, final long end, final Consumer<ChunkProgress> listener) {
+            this.total = total;
+            this.start = start;
+            this.chunkSize = chunkSize;
+            this.end = end;
+            this.listener = listener;
+        }
+
+        private synchronized void completed(final int index, final int count) {
+            done.set(index);
+            completed++;
+            rows += count;
+            if (listener != null) {
+                listener.accept(snapshot(null));
+            }
+        }
+
+        private synchronized ChunkProgress failed(final Throwable e) {
+            final ChunkProgress progress = snapshot(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            if (listener != null) {
+                listener.accept(progress);
+            }
+            return progress;
+        }
+
+        private synchronized ChunkProgress snapshot(final String error) {
+            final int next = done.nextClearBit(0);
+            final long resumeFrom = (next >= total) ? end : start + next * chunkSize;
+            return new ChunkProgress(total, completed, rows, resumeFrom, error);
+        }
+
+    }
+
+}
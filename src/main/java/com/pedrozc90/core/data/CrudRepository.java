@@ -4,7 +4,9 @@ import com.pedrozc90.core.exceptions.ApplicationException;
 import com.pedrozc90.core.querydsl.JPAQuery;
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Predicate;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micronaut.transaction.annotation.ReadOnly;
+import jakarta.inject.Inject;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
@@ -13,7 +15,9 @@ import javax.validation.constraints.NotNull;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public abstract class CrudRepository<E, ID> {
 
@@ -21,6 +25,10 @@ public abstract class CrudRepository<E, ID> {
     protected Class<E> clazz;
     protected EntityPath<E> entity;
 
+    // batch writes record their timings here
+    @Inject
+    protected MeterRegistry meterRegistry;
+
     public CrudRepository(final EntityManager em, final Class<E> clazz, final EntityPath<E> entity) {
         this.em = em;
         this.clazz = clazz;
@@ -64,6 +72,35 @@ public abstract class CrudRepository<E, ID> {
         );
     }
 
+    /**
+     * Streams the matching entities through a forward-only cursor, detaching each one and the
+     * associations it loaded after it is consumed; entities the caller already manages stay attached.
+     * Must be called and consumed inside a transaction, and closed.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public Stream<E> stream(final Predicate predicate) {
+        return stream(predicate, JPAQuery.DEFAULT_FETCH_SIZE);
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public Stream<E> stream(final Predicate predicate, final int fetchSize) {
+        final JPAQuery<E> query = createQuery().from(entity);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return query.select(entity).stream(fetchSize);
+    }
+
+    /**
+     * Walks every matching entity with constant memory, {@code fetchSize} rows per round trip.
+     */
+    @ReadOnly
+    public void forEach(final Predicate predicate, final int fetchSize, final Consumer<? super E> action) {
+        try (final Stream<E> stream = stream(predicate, fetchSize)) {
+            stream.forEach(action);
+        }
+    }
+
     @ReadOnly
     public long count(final Predicate predicate) {
         final JPAQuery<E> query = createQuery().from(entity);
@@ -91,6 +128,7 @@ public abstract class CrudRepository<E, ID> {
     @Transactional
     public E save(@Valid @NotNull final E entity) {
         em.persist(entity);
+        afterSave(entity);
         return entity;
     }
 
@@ -102,9 +140,20 @@ public abstract class CrudRepository<E, ID> {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Batch mode of {@link #saveMany(List)}: inserts are sent in jdbc batches and the persistence
+     * context is flushed and cleared every {@code batchSize} entities, detaching the saved entities.
+     */
+    @Transactional
+    public List<E> saveMany(@NotNull final List<E> entities, final int batchSize) {
+        return Batches.write(em, meterRegistry, clazz.getSimpleName() + ".saveMany", entities, batchSize, this::save);
+    }
+
     @Transactional
     public E update(@NotNull final E entity) {
-        return em.merge(entity);
+        final E merged = em.merge(entity);
+        afterSave(merged);
+        return merged;
     }
 
     @Transactional
@@ -115,6 +164,20 @@ public abstract class CrudRepository<E, ID> {
     @Transactional
     public void remove(@NotNull @NotNull final E entity) {
         em.remove(entity);
+        afterRemove(entity);
+    }
+
+    /**
+     * Called inside the transaction after every {@link #save(Object)} and {@link #update(Object)}, including
+     * the ones made by {@code saveMany}. Bulk statements such as {@code JPAUpdateClause} do not go through it.
+     */
+    protected void afterSave(final E entity) {
+    }
+
+    /**
+     * Called inside the transaction after every {@link #remove(Object)}.
+     */
+    protected void afterRemove(final E entity) {
     }
 
 }
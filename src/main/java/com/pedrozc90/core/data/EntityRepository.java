@@ -5,10 +5,12 @@ import com.pedrozc90.core.querydsl.JPAQuery;
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.jpa.impl.JPADeleteClause;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.data.repository.CrudRepository;
 import io.micronaut.transaction.annotation.ReadOnly;
+import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.persistence.EntityManager;
@@ -16,8 +18,11 @@ import javax.persistence.PersistenceContext;
 import javax.transaction.Transactional;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 @Slf4j
@@ -26,6 +31,10 @@ public abstract class EntityRepository<E, ID> implements CrudRepository<E, ID> {
     @PersistenceContext
     protected EntityManager em;
 
+    // batch writes record their timings here
+    @Inject
+    protected MeterRegistry meterRegistry;
+
     protected final String tableName;
     protected final Class<E> clazz;
     protected final EntityPath<E> entity;
@@ -89,6 +98,35 @@ public abstract class EntityRepository<E, ID> implements CrudRepository<E, ID> {
         return findMany(null);
     }
 
+    /**
+     * Streams the matching entities through a forward-only cursor, detaching each one and the
+     * associations it loaded after it is consumed; entities the caller already manages stay attached.
+     * Must be called and consumed inside a transaction, and closed.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public Stream<E> stream(@Nullable final Predicate predicate) {
+        return stream(predicate, JPAQuery.DEFAULT_FETCH_SIZE);
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public Stream<E> stream(@Nullable final Predicate predicate, final int fetchSize) {
+        final JPAQuery<E> query = createQuery().from(entity);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return query.select(entity).stream(fetchSize);
+    }
+
+    /**
+     * Walks every matching entity with constant memory, {@code fetchSize} rows per round trip.
+     */
+    @ReadOnly
+    public void forEach(@Nullable final Predicate predicate, final int fetchSize, final Consumer<? super E> action) {
+        try (final Stream<E> stream = stream(predicate, fetchSize)) {
+            stream.forEach(action);
+        }
+    }
+
     @ReadOnly
     public long count(@Nullable final Predicate predicate) {
         final JPAQuery<E> query = createQuery().from(entity);
@@ -129,6 +167,15 @@ public abstract class EntityRepository<E, ID> implements CrudRepository<E, ID> {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Batch mode of {@link #saveAll(Iterable)}: inserts are sent in jdbc batches and the persistence
+     * context is flushed and cleared every {@code batchSize} entities, detaching the saved entities.
+     */
+    @Transactional
+    public <S extends E> List<S> saveAll(@NotNull @NonNull final Iterable<S> entities, final int batchSize) {
+        return Batches.write(em, meterRegistry, tableName + ".saveAll", entities, batchSize, this::save);
+    }
+
     @Override
     @Transactional
     public <S extends E> S update(@Valid @NotNull @NonNull S entity) {
@@ -143,6 +190,14 @@ public abstract class EntityRepository<E, ID> implements CrudRepository<E, ID> {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Batch mode of {@link #updateAll(Iterable)}, returning the detached merged copies.
+     */
+    @Transactional
+    public <S extends E> List<S> updateAll(@NotNull @NonNull final Iterable<S> entities, final int batchSize) {
+        return Batches.write(em, meterRegistry, tableName + ".updateAll", entities, batchSize, this::update);
+    }
+
     @Override
     @Transactional
     public void deleteById(@Nullable ID id) {
@@ -0,0 +1,35 @@
+package com.pedrozc90.core.data;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence generator that reserves a block of ids per {@code nextval} call instead of one, using the
+ * pooled-lo optimizer: the sequence value is the first id of the block.
+ * <p>
+ * The block size comes from the {@value #ALLOCATION_SIZE} persistence property and must match the
+ * {@code INCREMENT BY} of the database sequences.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String STRATEGY = "com.pedrozc90.core.data.PooledSequenceGenerator";
+    public static final String ALLOCATION_SIZE = "hibernate.id.allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(final Type type, final Properties params, final ServiceRegistry serviceRegistry) throws MappingException {
+        final int allocationSize = ConfigurationHelper.getInt(ALLOCATION_SIZE,
+            serviceRegistry.getService(ConfigurationService.class).getSettings(), DEFAULT_ALLOCATION_SIZE);
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        params.putIfAbsent(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.pedrozc90.core.data;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.exceptions.ConfigurationException;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.runtime.event.annotation.EventListener;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Fails startup when a sequence used by {@link PooledSequenceGenerator} does not increment by the allocation
+ * size: a smaller increment hands out overlapping id blocks, a larger one wastes ids. Migration 11 sets the
+ * increment from the same property, so this only trips when the database was altered by hand.
+ */
+@Slf4j
+@Singleton
+public class SequenceAllocationCheck {
+
+    private static final String SELECT_SQL = "SELECT sequencename, increment_by FROM pg_sequences " +
+        "WHERE schemaname = 'public' AND sequencename IN ('users_id_seq', 'access_token_id_seq', 'refresh_token_id_seq')";
+
+    private final DataSource dataSource;
+    private final int allocationSize;
+
+    public SequenceAllocationCheck(final DataSource dataSource,
+                                   @Value("${jpa.default.properties.hibernate.id.allocation_size:" + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE + "}") final int allocationSize) {
+        this.dataSource = dataSource;
+        this.allocationSize = allocationSize;
+    }
+
+    @EventListener
+    public void onStartup(final StartupEvent event) {
+        try (final Connection conn = dataSource.getConnection();
+             final PreparedStatement ps = conn.prepareStatement(SELECT_SQL);
+             final ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                final long increment = rs.getLong(2);
+                if (increment != allocationSize) {
+                    throw new ConfigurationException(String.format("sequence %s increments by %d but ids are allocated in blocks of %d.",
+                        rs.getString(1), increment, allocationSize));
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("failed to check sequence increments: {}", e.getMessage());
+        }
+    }
+
+}
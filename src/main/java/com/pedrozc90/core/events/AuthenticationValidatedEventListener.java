@@ -1,30 +1,45 @@
 package com.pedrozc90.core.events;
 
 import com.pedrozc90.core.utils.AuthenticationUtils;
-import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.context.annotation.Value;
 import io.micronaut.security.authentication.Authentication;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
 @Singleton
-public class AuthenticationValidatedEventListener implements ApplicationEventListener<AuthenticationValidatedEvent> {
+public class AuthenticationValidatedEventListener implements BatchEventListener<AuthenticationValidatedEvent> {
 
-    @Override
-    public void onApplicationEvent(final AuthenticationValidatedEvent event) {
-        final Authentication authentication = (Authentication) event.getSource();
-        final Map<String, Object> attributes = authentication.getAttributes();
+    private final double sampleRate;
+
+    public AuthenticationValidatedEventListener(@Value("${application.events.sample-rates.authentication-validated:1.0}") final double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
 
-        final Long userId = AuthenticationUtils.getUserId(attributes);
+    @Override
+    public Class<AuthenticationValidatedEvent> getEventType() {
+        return AuthenticationValidatedEvent.class;
+    }
 
-        log.info("authenticated -> username: {}, user_id: {}", authentication.getName(), userId);
+    @Override
+    public double getSampleRate() {
+        return sampleRate;
     }
 
     @Override
-    public boolean supports(final AuthenticationValidatedEvent event) {
-        return ApplicationEventListener.super.supports(event);
+    public void onEvents(final List<AuthenticationValidatedEvent> events) {
+        if (!log.isInfoEnabled()) return;
+        for (final AuthenticationValidatedEvent event : events) {
+            final Authentication authentication = (Authentication) event.getSource();
+            final Map<String, Object> attributes = authentication.getAttributes();
+
+            final Long userId = AuthenticationUtils.getUserId(attributes);
+
+            log.info("authenticated -> username: {}, user_id: {}", authentication.getName(), userId);
+        }
     }
 
 }
@@ -0,0 +1,18 @@
+package com.pedrozc90.core.events;
+
+import java.util.List;
+
+public interface BatchEventListener<E> {
+
+    Class<E> getEventType();
+
+    void onEvents(final List<E> events);
+
+    /**
+     * @return fraction of the events, between 0 and 1, delivered to this listener
+     */
+    default double getSampleRate() {
+        return 1.0;
+    }
+
+}
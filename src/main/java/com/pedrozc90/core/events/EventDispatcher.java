@@ -0,0 +1,164 @@
+package com.pedrozc90.core.events;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.pedrozc90.core.config.EventsConfigurationProperties;
+import com.pedrozc90.core.config.EventsConfigurationProperties.DispatchMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes application events either on the caller thread or, in async mode, through a bounded
+ * ring buffer drained by a single worker that hands them to listeners in batches.
+ * <p>
+ * Regular {@code ApplicationEventListener} beans still receive every event, one by one, while
+ * {@link BatchEventListener} beans receive sampled batches.
+ * <p>
+ * Only authentication events go through it. Entity changes stay on the {@code CrudRepository} save and
+ * remove hooks: the prefix index and the token cache invalidation they drive must see every change, in
+ * order and before the caller returns, which a buffer that drops or samples cannot promise.
+ */
+@Slf4j
+@Singleton
+public class EventDispatcher {
+
+    private final ApplicationEventPublisher<Object> eventPublisher;
+    private final Collection<BatchEventListener<?>> listeners;
+    private final EventsConfigurationProperties config;
+    private final Counter droppedCounter;
+
+    private BlockingQueue<Object> buffer;
+    private Thread worker;
+    private volatile boolean running;
+
+    public EventDispatcher(final ApplicationEventPublisher<Object> eventPublisher,
+                           final Collection<BatchEventListener<?>> listeners,
+                           final EventsConfigurationProperties config,
+                           final MeterRegistry registry) {
+        this.eventPublisher = eventPublisher;
+        this.listeners = listeners;
+        this.config = config;
+        this.droppedCounter = Counter.builder("events.dropped").register(registry);
+
+        if (config.getMode() == DispatchMode.ASYNC) {
+            this.buffer = new ArrayBlockingQueue<>(config.getBufferSize());
+            Gauge.builder("events.buffered", buffer, BlockingQueue::size).register(registry);
+
+            this.running = true;
+            this.worker = new ThreadFactoryBuilder()
+                .setNameFormat("event-dispatcher-%d")
+                .setDaemon(true)
+                .build()
+                .newThread(this::run);
+            this.worker.start();
+        }
+    }
+
+    public void publish(final Object event) {
+        if (buffer == null) {
+            deliver(Collections.singletonList(event));
+        } else if (!offer(event)) {
+            droppedCounter.increment();
+        }
+    }
+
+    private boolean offer(final Object event) {
+        switch (config.getOverflowPolicy()) {
+            case BLOCK:
+                try {
+                    return buffer.offer(event, config.getBlockTimeout().toNanos(), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            case DROP_OLDEST:
+                while (!buffer.offer(event)) {
+                    if (buffer.poll() != null) {
+                        droppedCounter.increment();
+                    }
+                }
+                return true;
+            default:
+                return buffer.offer(event);
+        }
+    }
+
+    private void run() {
+        final List<Object> batch = new ArrayList<>(config.getBatchSize());
+        final long pollInterval = config.getPollInterval().toNanos();
+        while (running || !buffer.isEmpty()) {
+            try {
+                final Object first = buffer.poll(pollInterval, TimeUnit.NANOSECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                buffer.drainTo(batch, config.getBatchSize() - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(final List<Object> events) {
+        for (final Object event : events) {
+            try {
+                eventPublisher.publishEvent(event);
+            } catch (Exception e) {
+                log.error("failed to publish event {}", event.getClass().getSimpleName(), e);
+            }
+        }
+
+        for (final BatchEventListener<?> listener : listeners) {
+            final double sampleRate = listener.getSampleRate();
+            final List<Object> accepted = new ArrayList<>();
+            for (final Object event : events) {
+                if (listener.getEventType().isInstance(event) && sampled(sampleRate)) {
+                    accepted.add(event);
+                }
+            }
+            if (accepted.isEmpty()) continue;
+            try {
+                ((BatchEventListener<Object>) listener).onEvents(accepted);
+            } catch (Exception e) {
+                log.error("listener {} failed to handle {} events", listener.getClass().getSimpleName(), accepted.size(), e);
+            }
+        }
+    }
+
+    private static boolean sampled(final double sampleRate) {
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (worker == null) return;
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            log.warn("event dispatcher did not drain in time, {} events discarded", buffer.size());
+            worker.interrupt();
+        }
+    }
+
+}
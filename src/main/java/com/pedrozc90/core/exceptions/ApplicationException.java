@@ -3,12 +3,17 @@ package com.pedrozc90.core.exceptions;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.micronaut.http.HttpStatus;
 
+import java.time.Duration;
+
 public class ApplicationException extends RuntimeException {
 
     protected HttpStatus status = HttpStatus.BAD_REQUEST;
 
     protected String field;
 
+    // sent back as the Retry-After header
+    protected Duration retryAfter;
+
     public ApplicationException() {
         super();
     }
@@ -54,6 +59,10 @@ public class ApplicationException extends RuntimeException {
         return field;
     }
 
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
     public static ApplicationException of(final String message) {
         return new ApplicationException(message);
     }
@@ -88,4 +97,22 @@ public class ApplicationException extends RuntimeException {
         return this;
     }
 
+    @JsonIgnore
+    public ApplicationException tooManyRequests() {
+        this.status = HttpStatus.TOO_MANY_REQUESTS;
+        return this;
+    }
+
+    @JsonIgnore
+    public ApplicationException retryAfter(final Duration retryAfter) {
+        this.retryAfter = retryAfter;
+        return this;
+    }
+
+    @JsonIgnore
+    public ApplicationException serviceUnavailable() {
+        this.status = HttpStatus.SERVICE_UNAVAILABLE;
+        return this;
+    }
+
 }
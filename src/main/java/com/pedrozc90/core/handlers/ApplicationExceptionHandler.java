@@ -4,9 +4,11 @@ import com.pedrozc90.core.exceptions.ApplicationException;
 import com.pedrozc90.core.models.ErrorMessage;
 import com.pedrozc90.core.models.ResultContent;
 import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.Produces;
 import io.micronaut.http.server.exceptions.ExceptionHandler;
 import jakarta.inject.Singleton;
@@ -27,7 +29,13 @@ public class ApplicationExceptionHandler implements ExceptionHandler<Application
         final HttpStatus status = (exception.getStatus() != null) ? exception.getStatus() : HttpStatus.NOT_FOUND;
         // final List<ErrorMessage> list = getErrorList(exception);
         final ResultContent<?> rs = ResultContent.of().message(exception.getMessage());
-        return HttpResponse.status(status).body(rs);
+        final MutableHttpResponse<?> response = HttpResponse.status(status).body(rs);
+        if (exception.getRetryAfter() != null) {
+            // whole seconds, rounded up so clients never retry too early
+            final long seconds = Math.max(1, (exception.getRetryAfter().toMillis() + 999) / 1000);
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        }
+        return response;
     }
 
     private List<ErrorMessage> getErrorList(ApplicationException e) {
@@ -0,0 +1,26 @@
+package com.pedrozc90.core.models;
+
+import com.pedrozc90.core.exceptions.ApplicationException;
+
+public enum CountMode {
+
+    // separate count(*) over the filtered query
+    EXACT,
+
+    // planner statistics for unfiltered queries, otherwise a count cached for a short while
+    ESTIMATE,
+
+    // no count at all, the page only tells whether there is a next one
+    NONE;
+
+    public static CountMode of(final String value) {
+        if (value == null || value.isBlank()) return EXACT;
+        for (final CountMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        throw ApplicationException.of("Unknown count mode %s.", value.trim()).badRequest();
+    }
+
+}
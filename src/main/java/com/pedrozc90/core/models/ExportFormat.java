@@ -0,0 +1,46 @@
+package com.pedrozc90.core.models;
+
+import com.pedrozc90.core.exceptions.ApplicationException;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+
+    NDJSON(ExportFormat.NDJSON_MEDIA_TYPE, "ndjson"),
+    CSV(ExportFormat.CSV_MEDIA_TYPE, "csv");
+
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(final String mediaType, final String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat of(final String value) {
+        if (value == null || value.isBlank()) return NDJSON;
+        for (final ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value.trim())) {
+                return format;
+            }
+        }
+        throw ApplicationException.of("Unknown format %s.", value.trim()).badRequest();
+    }
+
+    public static ExportFormat ofMediaType(final String contentType) {
+        if (contentType != null && contentType.trim().toLowerCase(Locale.ROOT).startsWith(CSV_MEDIA_TYPE)) return CSV;
+        return NDJSON;
+    }
+
+}
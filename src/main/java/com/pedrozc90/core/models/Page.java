@@ -9,8 +9,10 @@ import lombok.*;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.ALWAYS;
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
 
 @Getter
 @Setter
@@ -40,12 +42,33 @@ public class Page<E> implements Serializable {
     @JsonProperty("prev")
     private boolean prev = false;
 
+    // -1 when the total was not counted
     @JsonInclude(ALWAYS)
     @JsonProperty("total")
     private long total = 0;
 
+    // opaque position of the last row, only set by keyset pagination when there are more rows
+    @JsonInclude(NON_NULL)
+    @JsonProperty("cursor")
+    private String cursor;
+
     public static <E> Page<E> create(final JPAQuery<E> query, final int page, final int rpp) {
-        final long total = query.fetchCount();
+        return create(query, page, rpp, CountMode.EXACT);
+    }
+
+    // total is -1 with CountMode.NONE
+    public static <E> Page<E> create(final JPAQuery<E> query, final int page, final int rpp, final CountMode countMode) {
+        final long total;
+        switch (countMode) {
+            case NONE:
+                total = -1;
+                break;
+            case ESTIMATE:
+                total = query.fetchCountEstimate();
+                break;
+            default:
+                total = query.fetchTotal();
+        }
         final List<E> list = query.limit(rpp + 1)
             .offset((page - 1L) * rpp)
             .fetch();
@@ -54,7 +77,22 @@ public class Page<E> implements Serializable {
             list.remove(list.size() - 1);
             next = true;
         }
-        return new Page<E>(page, rpp, list, page > 1, next, total);
+        return new Page<E>(page, rpp, list, next, page > 1, total, null);
+    }
+
+    /**
+     * Keyset (seek) page: the query must already be filtered to rows after the previous cursor and ordered
+     * by the cursor columns, so every page costs the same no matter how deep it is. The total is not counted.
+     */
+    public static <E> Page<E> keyset(final JPAQuery<E> query, final int rpp, final boolean prev, final Function<E, String> cursor) {
+        final List<E> list = query.limit(rpp + 1).fetch();
+        boolean next = false;
+        if (list.size() > rpp) {
+            list.remove(list.size() - 1);
+            next = true;
+        }
+        final String nextCursor = next ? cursor.apply(list.get(list.size() - 1)) : null;
+        return new Page<E>(1, rpp, list, next, prev, -1, nextCursor);
     }
 
 }
@@ -7,7 +7,22 @@ import java.util.List;
 public class Pagination {
 
     public static <T> Page<T> fetch(final JPAQuery<T> query, final int page, final int rpp) {
-        final long total = query.fetchCount();
+        return fetch(query, page, rpp, CountMode.EXACT);
+    }
+
+    // total is -1 with CountMode.NONE
+    public static <T> Page<T> fetch(final JPAQuery<T> query, final int page, final int rpp, final CountMode countMode) {
+        final long total;
+        switch (countMode) {
+            case NONE:
+                total = -1;
+                break;
+            case ESTIMATE:
+                total = query.fetchCountEstimate();
+                break;
+            default:
+                total = query.fetchTotal();
+        }
         final List<T> list = query.limit(rpp + 1)
             .offset((page - 1L) * rpp)
             .fetch();
@@ -16,7 +31,7 @@ public class Pagination {
             list.remove(list.size() - 1);
             next = true;
         }
-        return new Page<T>(page, rpp, list, page > 1, next, total);
+        return new Page<T>(page, rpp, list, next, page > 1, total, null);
     }
 
 }
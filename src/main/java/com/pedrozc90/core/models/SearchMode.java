@@ -0,0 +1,23 @@
+package com.pedrozc90.core.models;
+
+import com.pedrozc90.core.exceptions.ApplicationException;
+
+public enum SearchMode {
+
+    // every field must contain the text
+    CONTAINS,
+
+    // any field may contain the text, served by pg_trgm indexes and ordered by similarity
+    TRIGRAM;
+
+    public static SearchMode of(final String value) {
+        if (value == null || value.isBlank()) return CONTAINS;
+        for (final SearchMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        throw ApplicationException.of("Unknown search mode %s.", value.trim()).badRequest();
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.pedrozc90.core.querydsl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.persistence.Table;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * Cheap row count estimates for pagination totals: postgres planner statistics for whole tables
+ * and recently computed exact counts for filtered queries.
+ */
+final class CountEstimates {
+
+    private static final long MAXIMUM_SIZE = 1_000;
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    // reltuples of the table plus its partitions, kept fresh by autovacuum / analyze
+    private static final String STATISTICS_SQL = "SELECT coalesce(sum(greatest(c.reltuples, 0)), 0)::bigint FROM pg_class c " +
+        "WHERE c.oid = to_regclass(:name) OR c.oid IN (SELECT i.inhrelid FROM pg_inherits i WHERE i.inhparent = to_regclass(:name))";
+
+    private static final Cache<String, Long> counts = CacheBuilder.newBuilder()
+        .maximumSize(MAXIMUM_SIZE)
+        .expireAfterWrite(TTL)
+        .build();
+
+    // -1 when the table has no statistics yet
+    static long fromStatistics(final EntityManager em, final Class<?> entity) {
+        final Table table = entity.getAnnotation(Table.class);
+        if (table == null || table.name().isEmpty()) return -1;
+        final String name = table.schema().isEmpty() ? table.name() : table.schema() + "." + table.name();
+        try {
+            final Number estimate = (Number) em.createNativeQuery(STATISTICS_SQL)
+                .setParameter("name", name)
+                .getSingleResult();
+            return estimate.longValue() > 0 ? estimate.longValue() : -1;
+        } catch (PersistenceException e) {
+            return -1;
+        }
+    }
+
+    static long cached(final String key, final LongSupplier count) {
+        try {
+            return counts.get(key, count::getAsLong);
+        } catch (ExecutionException e) {
+            return count.getAsLong();
+        }
+    }
+
+    private CountEstimates() {
+    }
+
+}
@@ -13,11 +13,15 @@
  */
 package com.pedrozc90.core.querydsl;
 
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Maps;
 import com.querydsl.jpa.*;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.lang.ref.WeakReference;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * {@code JPAProvider} provides detection of the JPA provider based on the EntityManager instance
@@ -30,6 +34,14 @@ public final class JPAProvider {
 
     private static final Map<String, JPQLTemplates> templatesByName = Maps.newHashMap();
 
+    // weak identity keys, a closed factory does not stay reachable through the cache
+    private static final ConcurrentMap<EntityManagerFactory, JPQLTemplates> templatesByFactory = CacheBuilder.newBuilder()
+        .weakKeys()
+        .<EntityManagerFactory, JPQLTemplates>build()
+        .asMap();
+
+    private static volatile Resolved last;
+
     private static void addMapping(String className, JPQLTemplates templates) {
         try {
             mappings.put(Class.forName(className), templates);
@@ -70,7 +82,36 @@ public final class JPAProvider {
         templatesByName.put("datanucleus", DataNucleusTemplates.DEFAULT);
     }
 
+    /**
+     * Templates for the provider behind the given EntityManager, detected once per
+     * {@link EntityManagerFactory} and then served from memory. The last EntityManager seen is
+     * remembered too, so the usual injected proxy skips even the factory lookup, which goes through
+     * the current session.
+     */
     public static JPQLTemplates getTemplates(EntityManager em) {
+        final Resolved resolved = last;
+        if (resolved != null && resolved.em.get() == em) {
+            return resolved.templates;
+        }
+
+        final EntityManagerFactory emf;
+        try {
+            emf = em.getEntityManagerFactory();
+        } catch (Exception e) {
+            return detectTemplates(em);
+        }
+        if (emf == null) {
+            return detectTemplates(em);
+        }
+        final JPQLTemplates templates = templatesByFactory.computeIfAbsent(emf, (k) -> detectTemplates(em));
+        last = new Resolved(em, templates);
+        return templates;
+    }
+
+    /**
+     * Detects the provider by unwrapping the EntityManager against every known implementation, without caching.
+     */
+    public static JPQLTemplates detectTemplates(EntityManager em) {
         for (Map.Entry<Class<?>, JPQLTemplates> entry : mappings.entrySet()) {
             Class<?> entityManagerClass = entry.getKey();
             try {
@@ -99,4 +140,16 @@ public final class JPAProvider {
     private JPAProvider() {
     }
 
+    private static final class Resolved {
+
+        private final WeakReference<EntityManager> em;
+        private final JPQLTemplates templates;
+
+        private Resolved(final EntityManager em, final JPQLTemplates templates) {
+            this.em = new WeakReference<>(em);
+            this.templates = templates;
+        }
+
+    }
+
 }
@@ -2,13 +2,38 @@ package com.pedrozc90.core.querydsl;
 
 import com.querydsl.core.DefaultQueryMetadata;
 import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
 import com.querydsl.core.Tuple;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.Wildcard;
 import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.JPQLTemplates;
 import com.querydsl.jpa.impl.AbstractJPAQuery;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.hibernate.type.Type;
 
 import javax.persistence.EntityManager;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * {@code JPAQuery} is the default implementation of the {@link JPQLQuery} interface for JPA
@@ -18,6 +43,8 @@ import javax.persistence.EntityManager;
  */
 public class JPAQuery<T> extends AbstractJPAQuery<T, JPAQuery<T>> {
 
+    public static final int DEFAULT_FETCH_SIZE = 1_000;
+
     /**
      * Creates a new detached query
      * The query can be attached via the clone method
@@ -93,4 +120,126 @@ public class JPAQuery<T> extends AbstractJPAQuery<T, JPAQuery<T>> {
         JPAQuery<Tuple> newType = (JPAQuery<Tuple>) this;
         return newType;
     }
+
+    /**
+     * Exact number of rows, ignoring ordering, limit and offset, without the deprecated {@link #fetchCount()}.
+     * Plain queries run a single {@code count(*)}, distinct ones count the distinct projection; grouped queries
+     * cannot be counted in JPQL, so their groups are fetched and counted in memory.
+     */
+    public long fetchTotal() {
+        final JPAQuery<T> query = clone();
+        final QueryMetadata metadata = query.getMetadata();
+        metadata.clearOrderBy();
+        metadata.setModifiers(QueryModifiers.EMPTY);
+        final Expression<?> projection = metadata.getProjection();
+        if (!metadata.getGroupBy().isEmpty() || (metadata.isDistinct() && projection instanceof FactoryExpression)) {
+            return query.fetch().size();
+        }
+        final Long total;
+        if (metadata.isDistinct() && projection != null) {
+            metadata.setDistinct(false);
+            total = query.select(Expressions.numberOperation(Long.class, Ops.AggOps.COUNT_DISTINCT_AGG, projection)).fetchOne();
+        } else {
+            total = query.select(Wildcard.count).fetchOne();
+        }
+        return (total != null) ? total : 0L;
+    }
+
+    /**
+     * Approximate {@link #fetchTotal()}: planner statistics when the query reads a whole table,
+     * otherwise the exact count of an identical query computed within the last minute.
+     */
+    public long fetchCountEstimate() {
+        final QueryMetadata metadata = getMetadata();
+        if (metadata.getWhere() == null && metadata.getJoins().size() == 1 && metadata.getGroupBy().isEmpty()) {
+            final long estimate = CountEstimates.fromStatistics(entityManager, metadata.getJoins().get(0).getTarget().getType());
+            if (estimate >= 0) return estimate;
+        }
+        return CountEstimates.cached(this + " | " + metadata.getJoins() + " | " + metadata.getWhere(), this::fetchTotal);
+    }
+
+    /**
+     * Streams the results through a forward-only server-side cursor reading {@code fetchSize} rows per
+     * round trip. Each entity row is detached once {@code action} has consumed it, together with the
+     * associations it loaded, so they do not pile up in the persistence context. Entities that were
+     * already managed when the stream was opened are left alone, unflushed changes included. Postgres
+     * only opens the cursor inside a transaction; the stream must be closed.
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<T> stream(final int fetchSize) {
+        final org.hibernate.query.Query<?> query = createQuery().unwrap(org.hibernate.query.Query.class);
+        query.setFetchSize(fetchSize);
+        query.setReadOnly(true);
+        query.setCacheMode(CacheMode.IGNORE);
+
+        final SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        final Set<EntityKey> managed = new HashSet<>(session.getPersistenceContextInternal().getEntitiesByKey().keySet());
+
+        final ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+
+        final Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(final Consumer<? super T> action) {
+                if (!results.next()) return false;
+                final T row = (T) results.get(0);
+                action.accept(row);
+                detach(session, managed, row);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(results::close);
+    }
+
+    /**
+     * Evicts {@code value} and, recursively, the entities reachable through its loaded associations,
+     * skipping anything whose key is in {@code managed}.
+     */
+    private static void detach(final SessionImplementor session, final Set<EntityKey> managed, final Object value) {
+        if (value == null) return;
+
+        final PersistenceContext context = session.getPersistenceContextInternal();
+        if (value instanceof HibernateProxy) {
+            final LazyInitializer initializer = ((HibernateProxy) value).getHibernateLazyInitializer();
+            if (initializer.isUninitialized()) {
+                final EntityPersister persister = session.getFactory().getMetamodel().entityPersister(initializer.getEntityName());
+                final EntityKey key = session.generateEntityKey(initializer.getIdentifier(), persister);
+                if (!managed.contains(key) && context.containsProxy(value)) {
+                    session.evict(value);
+                }
+                return;
+            }
+            detach(session, managed, initializer.getImplementation());
+            return;
+        }
+
+        final EntityEntry entry = context.getEntry(value);
+        if (entry == null || managed.contains(entry.getEntityKey())) return;
+
+        final EntityPersister persister = entry.getPersister();
+        session.evict(value);
+
+        final Type[] types = persister.getPropertyTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (types[i].isEntityType()) {
+                detach(session, managed, persister.getPropertyValue(value, i));
+            } else if (types[i].isCollectionType()) {
+                final Object collection = persister.getPropertyValue(value, i);
+                if (collection == null || !Hibernate.isInitialized(collection)) continue;
+                final Iterable<?> elements = (collection instanceof Map) ? ((Map<?, ?>) collection).values() : (Iterable<?>) collection;
+                for (final Object element : elements) {
+                    detach(session, managed, element);
+                }
+            }
+        }
+    }
+
+    /**
+     * Calls {@code action} for every result of {@link #stream(int)}, closing the cursor afterwards.
+     */
+    public void forEach(final int fetchSize, final Consumer<? super T> action) {
+        try (final Stream<T> stream = stream(fetchSize)) {
+            stream.forEach(action);
+        }
+    }
+
 }
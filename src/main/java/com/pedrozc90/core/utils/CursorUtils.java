@@ -0,0 +1,33 @@
+package com.pedrozc90.core.utils;
+
+import com.pedrozc90.core.exceptions.ApplicationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class CursorUtils {
+
+    private static final String SEPARATOR = "\n";
+
+    // encodes the sort key of the last row of a page as an opaque url-safe string
+    public static String encode(final Object... values) {
+        final String raw = Stream.of(values).map(String::valueOf).collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(final String cursor, final int size) {
+        try {
+            final String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final String[] values = raw.split(SEPARATOR, -1);
+            if (values.length == size) {
+                return values;
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through to the error below
+        }
+        throw ApplicationException.of("Invalid cursor.").badRequest();
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.pedrozc90.core.utils;
+
+import com.google.common.net.InetAddresses;
+import com.pedrozc90.core.config.ProxyConfigurationProperties;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+
+public class RequestUtils {
+
+    public static final String X_FORWARDED_FOR = "x-forwarded-for";
+
+    /**
+     * Client address of the request, never resolved through dns. The socket peer is used unless it is one of
+     * the trusted proxies; only then is {@code x-forwarded-for} read, right to left, skipping trusted hops, so a
+     * client cannot pick its own address by sending the header.
+     */
+    public static String getRemoteAddress(final HttpRequest<?> request, final ProxyConfigurationProperties proxies) {
+        InetAddress address = Optional.ofNullable(request.getRemoteAddress()).map(InetSocketAddress::getAddress).orElse(null);
+        if (address != null && isTrusted(address, proxies.getTrustedAddresses())) {
+            final String[] hops = StringUtils.split(String.join(",", request.getHeaders().getAll(X_FORWARDED_FOR)), ',');
+            for (int i = hops.length - 1; i >= 0; i--) {
+                final String hop = hops[i].trim();
+                if (!InetAddresses.isInetAddress(hop)) break;
+                address = InetAddresses.forString(hop);
+                if (!isTrusted(address, proxies.getTrustedAddresses())) break;
+            }
+        }
+        return (address != null) ? StringUtils.substringBefore(InetAddresses.toAddrString(address), "%") : null;
+    }
+
+    // whether the address is one of the ip literals or inside one of the cidr ranges
+    static boolean isTrusted(final InetAddress address, final List<String> trusted) {
+        if (trusted == null) return false;
+        final byte[] bytes = address.getAddress();
+        for (final String entry : trusted) {
+            final String network = StringUtils.trimToEmpty(StringUtils.substringBefore(entry, "/"));
+            if (!InetAddresses.isInetAddress(network)) continue;
+            final byte[] prefix = InetAddresses.forString(network).getAddress();
+            if (prefix.length != bytes.length) continue;
+            final int bits = entry.contains("/") ? NumberUtils.toInt(StringUtils.substringAfter(entry, "/").trim(), -1) : bytes.length * 8;
+            if (bits < 0 || bits > bytes.length * 8) continue;
+            if (matches(bytes, prefix, bits)) return true;
+        }
+        return false;
+    }
+
+    private static boolean matches(final byte[] address, final byte[] prefix, final int bits) {
+        final int whole = bits / 8;
+        for (int i = 0; i < whole; i++) {
+            if (address[i] != prefix[i]) return false;
+        }
+        final int rest = bits % 8;
+        if (rest == 0) return true;
+        final int mask = (0xFF << (8 - rest)) & 0xFF;
+        return (address[whole] & mask) == (prefix[whole] & mask);
+    }
+
+    // authenticated principal, or the identity a login attempt was made with
+    public static String getUsername(final HttpRequest<?> request) {
+        return request.getUserPrincipal()
+            .map(Principal::getName)
+            .or(() -> {
+                try {
+                    return request.getBody(UsernamePasswordCredentials.class).map(UsernamePasswordCredentials::getUsername);
+                } catch (RuntimeException e) {
+                    return Optional.empty();
+                }
+            })
+            .map((s) -> StringUtils.substring(s, 0, 32))
+            .orElse(null);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.pedrozc90.core.utils;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+public class TokenUtils {
+
+    // fixed length (64 hex chars) SHA-256 digest used to store and look up tokens
+    public static String digest(final String token) {
+        if (token == null) return null;
+        return DigestUtils.sha256Hex(token);
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.pedrozc90.token.controllers;
+
+import com.pedrozc90.core.models.Page;
+import com.pedrozc90.token.models.AccessAction;
+import com.pedrozc90.token.models.AccessHistory;
+import com.pedrozc90.token.repo.AccessTokenRepository;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.PathVariable;
+import io.micronaut.http.annotation.QueryValue;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.micronaut.security.annotation.Secured;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Secured({ "MASTER" })
+@ExecuteOn(TaskExecutors.IO)
+@Controller("/access-history")
+public class AccessHistoryController {
+
+    private final AccessTokenRepository accessTokenRepository;
+
+    public AccessHistoryController(final AccessTokenRepository accessTokenRepository) {
+        this.accessTokenRepository = accessTokenRepository;
+    }
+
+    @Get("/{username}")
+    public Page<AccessHistory> fetch(@NotBlank @PathVariable final String username,
+                                     @Nullable @QueryValue(value = "action") final List<AccessAction> actions,
+                                     @Nullable @QueryValue(value = "from") final ZonedDateTime from,
+                                     @Nullable @QueryValue(value = "to") final ZonedDateTime to,
+                                     @Nullable @QueryValue(value = "cursor") final String cursor,
+                                     @Min(1) @Max(500) @QueryValue(value = "rpp", defaultValue = "50") final int rpp) {
+        return accessTokenRepository.history(username, actions, from, to, cursor, rpp);
+    }
+
+}
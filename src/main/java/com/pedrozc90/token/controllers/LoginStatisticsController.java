@@ -0,0 +1,30 @@
+package com.pedrozc90.token.controllers;
+
+import com.pedrozc90.token.models.LoginStats;
+import com.pedrozc90.token.stats.LoginStatistics;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.QueryValue;
+import io.micronaut.security.annotation.Secured;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.time.Duration;
+
+@Secured({ "MASTER" })
+@Controller("/login-stats")
+public class LoginStatisticsController {
+
+    private final LoginStatistics loginStatistics;
+
+    public LoginStatisticsController(final LoginStatistics loginStatistics) {
+        this.loginStatistics = loginStatistics;
+    }
+
+    @Get("/")
+    public LoginStats fetch(@Min(1) @Max(100) @QueryValue(value = "top", defaultValue = "10") final int top,
+                            @QueryValue(value = "window", defaultValue = "1h") final Duration window) {
+        return loginStatistics.snapshot(top, window);
+    }
+
+}
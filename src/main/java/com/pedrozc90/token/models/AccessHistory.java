@@ -0,0 +1,28 @@
+package com.pedrozc90.token.models;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.micronaut.core.annotation.Introspected;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Introspected
+public class AccessHistory implements Serializable {
+
+    private Long id;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSX", timezone = "UTC")
+    private ZonedDateTime insertedAt;
+
+    private AccessAction action;
+
+    private String address;
+
+    private String userAgent;
+
+}
@@ -3,7 +3,12 @@ package com.pedrozc90.token.models;
 import com.pedrozc90.core.audit.Audit;
 import com.pedrozc90.core.audit.Auditable;
 import com.pedrozc90.core.audit.listeners.AuditListener;
+import com.pedrozc90.core.data.PooledSequenceGenerator;
 import lombok.*;
+import org.hibernate.annotations.ColumnTransformer;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -23,18 +28,26 @@ public class AccessToken implements Serializable, Auditable {
 
     @ToString.Include
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO, generator = "access_token_id_seq")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "access_token_id_seq")
+    @GenericGenerator(name = "access_token_id_seq", strategy = PooledSequenceGenerator.STRATEGY, parameters = {
+        @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "public.access_token_id_seq")
+    })
     private Long id;
 
     @Embedded
     private Audit audit = new Audit();
 
-    @ToString.Include
-    @Column(name = "user_agent")
+    // deduplicated through the user_agent dictionary table
+    @Column(name = "user_agent_id")
+    private Integer userAgentId;
+
+    // raw header value, resolved to user_agent_id by the access log writer
+    @Transient
     private String userAgent;
 
     @ToString.Include
-    @Column(name = "address")
+    @Column(name = "address", columnDefinition = "inet")
+    @ColumnTransformer(write = "?::inet")
     private String address;
 
     @ToString.Include
@@ -47,12 +60,11 @@ public class AccessToken implements Serializable, Auditable {
     @Column(name = "username", length = 32, nullable = false)
     private String username;
 
-    @ToString.Include
-    @Column(name = "access_token", columnDefinition = "text")
-    private String accessToken;
+    // sha-256 digests, the tokens themselves are never stored
+    @Column(name = "access_token_hash", length = 64)
+    private String accessTokenHash;
 
-    @ToString.Include
-    @Column(name = "refresh_token", columnDefinition = "text")
-    private String refreshToken;
+    @Column(name = "refresh_token_hash", length = 64)
+    private String refreshTokenHash;
 
 }
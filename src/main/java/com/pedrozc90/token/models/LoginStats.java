@@ -0,0 +1,39 @@
+package com.pedrozc90.token.models;
+
+import io.micronaut.core.annotation.Introspected;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Introspected
+public class LoginStats implements Serializable {
+
+    private Map<AccessAction, Long> lastMinute;
+
+    private Map<AccessAction, Long> lastHour;
+
+    // failed logins and refreshes only, the signal for credential stuffing
+    private List<Entry> topFailedUsernames;
+
+    private List<Entry> topFailedAddresses;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Introspected
+    public static class Entry implements Serializable {
+
+        private String key;
+
+        private long count;
+
+    }
+
+}
@@ -3,12 +3,17 @@ package com.pedrozc90.token.models;
 import com.pedrozc90.core.audit.Audit;
 import com.pedrozc90.core.audit.Auditable;
 import com.pedrozc90.core.audit.listeners.AuditListener;
+import com.pedrozc90.core.data.PooledSequenceGenerator;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
+import java.util.UUID;
 
 @Entity
 @EntityListeners({ AuditListener.class })
@@ -25,7 +30,10 @@ public class RefreshToken implements Serializable, Auditable {
     @ToString.Include
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.AUTO, generator = "refresh_token_id_seq")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_token_id_seq")
+    @GenericGenerator(name = "refresh_token_id_seq", strategy = PooledSequenceGenerator.STRATEGY, parameters = {
+        @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "public.refresh_token_id_seq")
+    })
     private Long id;
 
     @Embedded
@@ -37,11 +45,20 @@ public class RefreshToken implements Serializable, Auditable {
     @Column(name = "username", length = 32, nullable = false)
     private String username;
 
-    @ToString.Include
+    // sha-256 digest of the refresh token, the token itself is never stored
     @NotNull
     @NotBlank
-    @Column(name = "refresh_token", columnDefinition = "text")
-    private String refreshToken;
+    @Column(name = "token_hash", length = 64, nullable = false, unique = true)
+    private String tokenHash;
+
+    // every token issued from the same login shares a family
+    @NotNull
+    @Column(name = "family_id", columnDefinition = "uuid", nullable = false)
+    private UUID familyId;
+
+    // token this one was rotated from, null for the first token of a family
+    @Column(name = "parent_id")
+    private Long parentId;
 
     @ToString.Include
     @NotNull
@@ -0,0 +1,34 @@
+package com.pedrozc90.token.models;
+
+import lombok.*;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+
+@Entity
+@Table(name = "user_agent", schema = "public")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString(onlyExplicitlyIncluded = true)
+public class UserAgent implements Serializable {
+
+    @ToString.Include
+    @EqualsAndHashCode.Include
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "user_agent_id_seq")
+    private Integer id;
+
+    @ToString.Include
+    @NotNull
+    @Size(max = 255)
+    @Column(name = "value", length = 255, nullable = false, unique = true)
+    private String value;
+
+}
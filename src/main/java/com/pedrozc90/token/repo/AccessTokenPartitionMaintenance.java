@@ -0,0 +1,43 @@
+package com.pedrozc90.token.repo;
+
+import com.pedrozc90.core.config.AccessLogConfigurationProperties;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the monthly partitions of {@code access_token} ahead of time and removes the ones past the retention.
+ */
+@Slf4j
+@Singleton
+public class AccessTokenPartitionMaintenance {
+
+    private final AccessTokenRepository accessTokenRepository;
+    private final AccessLogConfigurationProperties config;
+
+    public AccessTokenPartitionMaintenance(final AccessTokenRepository accessTokenRepository,
+                                           final AccessLogConfigurationProperties config) {
+        this.accessTokenRepository = accessTokenRepository;
+        this.config = config;
+    }
+
+    @Scheduled(initialDelay = "1m", fixedDelay = "${application.access-log.maintenance-interval:1h}")
+    public void run() {
+        try {
+            final int created = accessTokenRepository.createPartitions(config.getPartitionsAhead());
+            if (created > 0) {
+                log.info("{} access_token partitions created.", created);
+            }
+
+            if (config.getRetention() != null) {
+                final int removed = accessTokenRepository.dropPartitions(config.getRetention(), config.isDetachExpired());
+                if (removed > 0) {
+                    log.info("{} access_token partitions {}.", removed, config.isDetachExpired() ? "detached" : "dropped");
+                }
+            }
+        } catch (Exception e) {
+            log.error("access_token partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+}
@@ -1,68 +1,150 @@
 package com.pedrozc90.token.repo;
 
+import com.pedrozc90.core.config.ProxyConfigurationProperties;
 import com.pedrozc90.core.data.CrudRepository;
+import com.pedrozc90.core.exceptions.ApplicationException;
+import com.pedrozc90.core.models.Page;
+import com.pedrozc90.core.querydsl.JPAQuery;
+import com.pedrozc90.core.utils.CursorUtils;
+import com.pedrozc90.core.utils.RequestUtils;
+import com.pedrozc90.core.utils.TokenUtils;
 import com.pedrozc90.token.models.AccessAction;
+import com.pedrozc90.token.models.AccessHistory;
 import com.pedrozc90.token.models.AccessToken;
 import com.pedrozc90.token.models.QAccessToken;
+import com.pedrozc90.token.models.QUserAgent;
+import com.querydsl.core.types.Projections;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.security.authentication.Authentication;
 import io.micronaut.security.token.jwt.render.AccessRefreshToken;
+import io.micronaut.transaction.annotation.ReadOnly;
 import jakarta.inject.Singleton;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import javax.validation.constraints.NotNull;
-import java.net.InetSocketAddress;
 import java.security.Principal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Optional;
 
 @Singleton
 public class AccessTokenRepository extends CrudRepository<AccessToken, Long> {
 
-    public AccessTokenRepository(final EntityManager em) {
-        super(em, AccessToken.class, QAccessToken.accessToken1);
+    private final AccessTokenWriter accessTokenWriter;
+    private final ProxyConfigurationProperties proxies;
+
+    public AccessTokenRepository(final EntityManager em,
+                                 final AccessTokenWriter accessTokenWriter,
+                                 final ProxyConfigurationProperties proxies) {
+        super(em, AccessToken.class, QAccessToken.accessToken);
+        this.accessTokenWriter = accessTokenWriter;
+        this.proxies = proxies;
     }
 
     public void register(@NotNull final AccessAction action, @NotNull final HttpRequest<?> request) {
-        register(action, null, null, request);
+        register(action, null, null, null, request);
     }
 
     public void register(@NotNull final AccessAction action, @NotNull final Authentication authentication,
                          @NotNull final HttpRequest<?> request) {
-        register(action, authentication, null, request);
+        register(action, authentication, null, null, request);
     }
 
-    @Transactional
+    // request data is captured here, the row itself is written by the access log writer
     public void register(@NotNull final AccessAction action, @Nullable final Authentication authentication,
-                         @Nullable final AccessRefreshToken accessRefreshToken, @NotNull final HttpRequest<?> request) {
+                         @Nullable final AccessRefreshToken accessRefreshToken, @Nullable final String refreshTokenKey,
+                         @NotNull final HttpRequest<?> request) {
         final String userAgent = Optional.ofNullable(request.getHeaders().get(HttpHeaders.USER_AGENT))
             .map((s) -> StringUtils.substring(s, 0, 255))
             .map(StringUtils::trimToNull)
             .orElse(null);
 
-        final String remoteAddress = Optional.ofNullable(request.getHeaders().get("x-forwarded-for"))
-            .or(() -> Optional.of(request.getRemoteAddress()).map(InetSocketAddress::toString))
-            .map((s) -> StringUtils.substring(s, 0, 255))
-            .map(StringUtils::trimToNull)
-            .orElse(null);
+        final String remoteAddress = RequestUtils.getRemoteAddress(request, proxies);
 
         final String username = Optional.ofNullable(authentication)
             .map(Principal::getName)
-            .or(() -> request.getUserPrincipal().map(Principal::getName))
-            .orElse(null);
+            .orElseGet(() -> RequestUtils.getUsername(request));
 
         final AccessToken at = new AccessToken();
         at.setAction(action);
         at.setUserAgent(userAgent);
         at.setAddress(remoteAddress);
         at.setUsername(username);
-        Optional.ofNullable(accessRefreshToken).ifPresent((v) -> {
-            at.setAccessToken(v.getAccessToken());
-            at.setRefreshToken(v.getRefreshToken());
-        });
-        save(at);
+        Optional.ofNullable(accessRefreshToken).ifPresent((v) -> at.setAccessTokenHash(TokenUtils.digest(v.getAccessToken())));
+        // refresh_token rows are keyed by the digest of the key inside the signed refresh token
+        Optional.ofNullable(refreshTokenKey).ifPresent((v) -> at.setRefreshTokenHash(TokenUtils.digest(v)));
+        accessTokenWriter.write(at);
+    }
+
+    /**
+     * Access history of a user, newest first, paged by seeking past the (inserted_at, id) of the previous
+     * page instead of using an offset, which keeps deep pages on the (username, inserted_at, id) index.
+     */
+    @ReadOnly
+    public Page<AccessHistory> history(@NotNull final String username, @Nullable final List<AccessAction> actions,
+                                       @Nullable final ZonedDateTime from, @Nullable final ZonedDateTime to,
+                                       @Nullable final String cursor, final int rpp) {
+        final QAccessToken at = QAccessToken.accessToken;
+        final QUserAgent ua = QUserAgent.userAgent;
+
+        final JPAQuery<AccessToken> query = createQuery().from(at)
+            .leftJoin(ua).on(ua.id.eq(at.userAgentId))
+            .where(at.username.eq(username));
+
+        if (actions != null && !actions.isEmpty()) {
+            query.where(at.action.in(actions));
+        }
+        if (from != null) {
+            query.where(at.audit.insertedAt.goe(from));
+        }
+        if (to != null) {
+            query.where(at.audit.insertedAt.lt(to));
+        }
+        if (cursor != null) {
+            final String[] values = CursorUtils.decode(cursor, 2);
+            final ZonedDateTime insertedAt;
+            final Long id;
+            try {
+                insertedAt = Instant.parse(values[0]).atZone(ZoneOffset.UTC);
+                id = Long.valueOf(values[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw ApplicationException.of("Invalid cursor.").badRequest();
+            }
+            // the redundant upper bound lets postgres use it as an index condition
+            query.where(at.audit.insertedAt.loe(insertedAt))
+                .where(at.audit.insertedAt.lt(insertedAt).or(at.audit.insertedAt.eq(insertedAt).and(at.id.lt(id))));
+        }
+
+        final JPAQuery<AccessHistory> select = query
+            .orderBy(at.audit.insertedAt.desc(), at.id.desc())
+            .select(Projections.constructor(AccessHistory.class, at.id, at.audit.insertedAt, at.action, at.address, ua.value));
+
+        return Page.keyset(select, rpp, cursor != null, (h) -> CursorUtils.encode(h.getInsertedAt().toInstant(), h.getId()));
+    }
+
+    @Transactional
+    public int createPartitions(final int monthsAhead) {
+        final Object created = em.createNativeQuery("SELECT create_access_token_partitions(:months_ahead)")
+            .setParameter("months_ahead", monthsAhead)
+            .getSingleResult();
+        return ((Number) created).intValue();
     }
-}
\ No newline at end of file
+
+    @Transactional
+    public int dropPartitions(final Duration retention, final boolean detachOnly) {
+        final Object removed = em.createNativeQuery("SELECT drop_access_token_partitions(:retention * interval '1 second', :detach_only)")
+            .setParameter("retention", retention.toSeconds())
+            .setParameter("detach_only", detachOnly)
+            .getSingleResult();
+        return ((Number) removed).intValue();
+    }
+
+}
@@ -0,0 +1,209 @@
+package com.pedrozc90.token.repo;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.pedrozc90.core.config.AccessLogConfigurationProperties;
+import com.pedrozc90.core.data.PooledSequenceGenerator;
+import com.pedrozc90.token.models.AccessToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.context.annotation.Value;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes access log rows with plain JDBC batches, outside of the request transaction.
+ * <p>
+ * In async mode rows go onto a bounded queue drained by a single worker, which flushes whenever a batch
+ * fills up or the flush interval elapses. Rows that do not fit in the queue are dropped and counted.
+ * <p>
+ * Ids are allocated the way {@link PooledSequenceGenerator} does: the sequence increments by the allocation
+ * size and each {@code nextval} reserves that many ids, so a block is spent on rows instead of one per row.
+ */
+@Slf4j
+@Singleton
+public class AccessTokenWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO public.access_token " +
+        "(id, inserted_at, updated_at, version, user_agent_id, address, action, username, access_token_hash, refresh_token_hash) " +
+        "VALUES (?, ?, ?, ?, ?, ?::inet, ?, ?, ?, ?)";
+
+    private static final String NEXTVAL_SQL = "SELECT nextval('public.access_token_id_seq')";
+
+    private final DataSource dataSource;
+    private final UserAgentDictionary userAgentDictionary;
+    private final AccessLogConfigurationProperties config;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+    private final int allocationSize;
+
+    // current pooled-lo block, [nextId, maxId)
+    private long nextId;
+    private long maxId;
+
+    private BlockingQueue<AccessToken> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    public AccessTokenWriter(final DataSource dataSource,
+                             final UserAgentDictionary userAgentDictionary,
+                             final AccessLogConfigurationProperties config,
+                             final MeterRegistry registry,
+                             @Value("${jpa.default.properties.hibernate.id.allocation_size:" + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE + "}") final int allocationSize) {
+        this.dataSource = dataSource;
+        this.userAgentDictionary = userAgentDictionary;
+        this.config = config;
+        this.droppedCounter = Counter.builder("access_log.dropped").register(registry);
+        this.failedCounter = Counter.builder("access_log.failed").register(registry);
+        this.flushTimer = Timer.builder("access_log.flush").register(registry);
+        this.allocationSize = allocationSize;
+
+        if (config.isAsync()) {
+            this.queue = new ArrayBlockingQueue<>(config.getQueueSize());
+            Gauge.builder("access_log.queued", queue, BlockingQueue::size).register(registry);
+
+            this.running = true;
+            this.worker = new ThreadFactoryBuilder()
+                .setNameFormat("access-log-writer-%d")
+                .setDaemon(true)
+                .build()
+                .newThread(this::run);
+            this.worker.start();
+        }
+    }
+
+    public void write(final AccessToken at) {
+        if (queue == null) {
+            flush(Collections.singletonList(at));
+        } else if (!queue.offer(at)) {
+            droppedCounter.increment();
+        }
+    }
+
+    private void run() {
+        final int batchSize = config.getBatchSize();
+        final long flushInterval = config.getFlushInterval().toNanos();
+        final List<AccessToken> batch = new ArrayList<>(batchSize);
+        long deadline = System.nanoTime() + flushInterval;
+        try {
+            while (running || !queue.isEmpty()) {
+                final long remaining = deadline - System.nanoTime();
+                final AccessToken first = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                if (batch.size() >= batchSize || System.nanoTime() - deadline >= 0) {
+                    flushSafely(batch);
+                    batch.clear();
+                    deadline = System.nanoTime() + flushInterval;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flushSafely(batch);
+        }
+    }
+
+    // the worker must survive any failure, otherwise the queue fills up and every later row is dropped
+    private void flushSafely(final List<AccessToken> batch) {
+        try {
+            flush(batch);
+        } catch (RuntimeException e) {
+            failedCounter.increment(batch.size());
+            log.error("failed to write {} access log rows: {}", batch.size(), e.getMessage(), e);
+        }
+    }
+
+    private void flush(final List<AccessToken> batch) {
+        if (batch.isEmpty()) return;
+        final long start = System.nanoTime();
+        try (final Connection conn = dataSource.getConnection()) {
+            final boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(true);
+            final long[] ids = new long[batch.size()];
+            final Integer[] userAgentIds = new Integer[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                ids[i] = nextId(conn);
+                userAgentIds[i] = userAgentDictionary.resolve(conn, batch.get(i).getUserAgent());
+            }
+
+            conn.setAutoCommit(false);
+            try (final PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+                for (int i = 0; i < batch.size(); i++) {
+                    final AccessToken at = batch.get(i);
+                    ps.setLong(1, ids[i]);
+                    ps.setTimestamp(2, Timestamp.from(at.getAudit().getInsertedAt().toInstant()));
+                    ps.setTimestamp(3, Timestamp.from(at.getAudit().getUpdatedAt().toInstant()));
+                    ps.setInt(4, at.getAudit().getVersion());
+                    ps.setObject(5, userAgentIds[i], Types.INTEGER);
+                    ps.setString(6, at.getAddress());
+                    ps.setString(7, at.getAction().name());
+                    ps.setString(8, at.getUsername());
+                    ps.setString(9, at.getAccessTokenHash());
+                    ps.setString(10, at.getRefreshTokenHash());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            failedCounter.increment(batch.size());
+            log.error("failed to write {} access log rows: {}", batch.size(), e.getMessage(), e);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // sync mode flushes from request threads, so blocks are handed out under the writer lock
+    private synchronized long nextId(final Connection conn) throws SQLException {
+        if (nextId >= maxId) {
+            try (final PreparedStatement ps = conn.prepareStatement(NEXTVAL_SQL);
+                 final ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                nextId = rs.getLong(1);
+                maxId = nextId + allocationSize;
+            }
+        }
+        return nextId++;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (worker == null) return;
+        running = false;
+        try {
+            worker.join(config.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            log.warn("access log writer did not drain in time, {} rows discarded", queue.size());
+            worker.interrupt();
+        }
+    }
+
+}
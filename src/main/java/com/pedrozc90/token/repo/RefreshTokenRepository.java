@@ -2,6 +2,7 @@ package com.pedrozc90.token.repo;
 
 import com.pedrozc90.core.data.CrudRepository;
 import com.pedrozc90.core.querydsl.JPAQuery;
+import com.pedrozc90.core.utils.TokenUtils;
 import com.pedrozc90.token.models.QAccessToken;
 import com.pedrozc90.token.models.QRefreshToken;
 import com.pedrozc90.token.models.RefreshToken;
@@ -12,32 +13,85 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Slf4j
 @Singleton
 public class RefreshTokenRepository extends CrudRepository<RefreshToken, Long> {
 
     public RefreshTokenRepository(final EntityManager em) {
-        super(em, RefreshToken.class, QRefreshToken.refreshToken1);
+        super(em, RefreshToken.class, QRefreshToken.refreshToken);
     }
 
     @ReadOnly
     public Optional<RefreshToken> findByRefreshToken(final String refreshToken) {
-        return findOne(QRefreshToken.refreshToken1.refreshToken.eq(refreshToken));
+        // the lookup is by digest, so matching it leaks nothing about the token itself
+        return findOne(QRefreshToken.refreshToken.tokenHash.eq(TokenUtils.digest(refreshToken)));
     }
 
+    /**
+     * Stores the first token of a new family, issued on login. Other sessions of the same user are left alone.
+     */
     @Transactional
     public RefreshToken register(final String username, final String refreshToken) {
-        try {
-            final RefreshToken rt = new RefreshToken();
-            rt.setUsername(username);
-            rt.setRefreshToken(refreshToken);
-            return super.save(rt);
-        } finally {
-            revoke(username);
+        final RefreshToken rt = new RefreshToken();
+        rt.setUsername(username);
+        rt.setTokenHash(TokenUtils.digest(refreshToken));
+        rt.setFamilyId(UUID.randomUUID());
+        return super.save(rt);
+    }
+
+    /**
+     * Retires the parent token and inserts its child in a single statement. The row lock taken by the update
+     * serializes concurrent refreshes of the same token, so exactly one of them wins and the rest get {@code false}.
+     * A loser is checked with {@link #revokeIfReplayed(String, Duration)}.
+     */
+    @Transactional
+    public boolean rotate(final String parentToken, final String childToken, final Duration gracePeriod) {
+        final String queryStr = "WITH parent AS (" +
+            "    UPDATE public.refresh_token " +
+            "    SET revoked = true, updated_at = localtimestamp, version = version + 1 " +
+            "    WHERE token_hash = :parent_hash AND revoked = false " +
+            "    RETURNING id, family_id, username" +
+            ") " +
+            "INSERT INTO public.refresh_token (username, token_hash, family_id, parent_id) " +
+            "SELECT username, :child_hash, family_id, id FROM parent " +
+            "RETURNING id";
+        final List<?> inserted = em.createNativeQuery(queryStr)
+            .setParameter("parent_hash", TokenUtils.digest(parentToken))
+            .setParameter("child_hash", TokenUtils.digest(childToken))
+            .getResultList();
+        if (!inserted.isEmpty()) {
+            return true;
+        }
+        revokeIfReplayed(parentToken, gracePeriod);
+        return false;
+    }
+
+    /**
+     * Called when a retired token is presented again. Within {@code gracePeriod} of its rotation this is taken
+     * for a concurrent refresh and nothing happens; after it, the token is treated as a replay and its whole
+     * family is revoked. Returns the number of tokens revoked.
+     */
+    @Transactional
+    public int revokeIfReplayed(final String refreshToken, final Duration gracePeriod) {
+        final String queryStr = "UPDATE public.refresh_token SET revoked = true, updated_at = localtimestamp, version = version + 1 " +
+            "WHERE revoked = false AND family_id = (" +
+            "    SELECT family_id FROM public.refresh_token " +
+            "    WHERE token_hash = :token_hash AND revoked = true " +
+            "    AND updated_at < localtimestamp - (:grace * interval '1 millisecond')" +
+            ")";
+        final int revoked = em.createNativeQuery(queryStr)
+            .setParameter("token_hash", TokenUtils.digest(refreshToken))
+            .setParameter("grace", gracePeriod.toMillis())
+            .executeUpdate();
+        if (revoked > 0) {
+            log.warn("refresh token replay detected, {} tokens of its family revoked.", revoked);
         }
+        return revoked;
     }
 
     @Transactional
@@ -54,16 +108,17 @@ public class RefreshTokenRepository extends CrudRepository<RefreshToken, Long> {
 
     @Transactional
     public void revoke(final String username, final String accessToken) {
-        final List<String> refreshTokens = new JPAQuery<>(em).from(QAccessToken.accessToken1)
-            .where(QAccessToken.accessToken1.accessToken.eq(accessToken))
-            .where(QAccessToken.accessToken1.username.eq(username))
-            .select(QAccessToken.accessToken1.refreshToken)
+        final List<String> tokenHashes = new JPAQuery<>(em).from(QAccessToken.accessToken)
+            .where(QAccessToken.accessToken.accessTokenHash.eq(TokenUtils.digest(accessToken)))
+            .where(QAccessToken.accessToken.username.eq(username))
+            .where(QAccessToken.accessToken.refreshTokenHash.isNotNull())
+            .select(QAccessToken.accessToken.refreshTokenHash)
             .fetch();
-        final long updated = new JPAUpdateClause(em, QRefreshToken.refreshToken1)
-            .set(QRefreshToken.refreshToken1.revoked, Boolean.TRUE)
-            .where(QRefreshToken.refreshToken1.revoked.isFalse())
-            .where(QRefreshToken.refreshToken1.username.eq(username))
-            .where(QRefreshToken.refreshToken1.refreshToken.in(refreshTokens))
+        final long updated = new JPAUpdateClause(em, QRefreshToken.refreshToken)
+            .set(QRefreshToken.refreshToken.revoked, Boolean.TRUE)
+            .where(QRefreshToken.refreshToken.revoked.isFalse())
+            .where(QRefreshToken.refreshToken.username.eq(username))
+            .where(QRefreshToken.refreshToken.tokenHash.in(tokenHashes))
             .execute();
         log.debug("{} rows revoked.", updated);
     }
@@ -0,0 +1,59 @@
+package com.pedrozc90.token.repo;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.inject.Singleton;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps user agent strings to their row in the {@code user_agent} table, inserting unknown ones.
+ * Known values are served from memory, so in practice only new browsers or clients reach the database.
+ */
+@Singleton
+public class UserAgentDictionary {
+
+    private static final long MAXIMUM_SIZE = 10_000;
+    private static final String UPSERT_SQL = "WITH ins AS (" +
+        "    INSERT INTO public.user_agent (value) VALUES (?) ON CONFLICT (value) DO NOTHING RETURNING id" +
+        ") " +
+        "SELECT id FROM ins UNION ALL SELECT id FROM public.user_agent WHERE value = ? LIMIT 1";
+
+    private final Cache<String, Integer> cache = CacheBuilder.newBuilder()
+        .maximumSize(MAXIMUM_SIZE)
+        .build();
+
+    /**
+     * Must run on a connection in auto-commit mode, so an id is only cached once its row is committed.
+     */
+    public Integer resolve(final Connection conn, final String value) throws SQLException {
+        if (value == null) return null;
+
+        final Integer cached = cache.getIfPresent(value);
+        if (cached != null) return cached;
+
+        // a concurrent insert from another instance is invisible to the statement snapshot, so retry once
+        Integer id = upsert(conn, value);
+        if (id == null) {
+            id = upsert(conn, value);
+        }
+        if (id != null) {
+            cache.put(value, id);
+        }
+        return id;
+    }
+
+    private Integer upsert(final Connection conn, final String value) throws SQLException {
+        try (final PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+            ps.setString(1, value);
+            ps.setString(2, value);
+            try (final ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.pedrozc90.token.stats;
+
+import com.pedrozc90.token.models.AccessAction;
+import com.pedrozc90.token.models.LoginStats;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Live login counters kept in memory, fed by the login handler, so watching login health does not
+ * need to count rows in {@code access_token}.
+ */
+@Singleton
+public class LoginStatistics {
+
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+    private static final Duration HOUR = Duration.ofHours(1);
+    private static final int TOP_BUCKETS = 360;
+    private static final int TOP_MAX_KEYS = 1024;
+    private static final AccessAction[] ACTIONS = AccessAction.values();
+
+    private final RollingCounter minute = new RollingCounter(MINUTE, 60, ACTIONS.length);
+    private final RollingCounter hour = new RollingCounter(HOUR, 60, ACTIONS.length);
+    private final RollingTopK failedUsernames = new RollingTopK(HOUR, TOP_BUCKETS, TOP_MAX_KEYS);
+    private final RollingTopK failedAddresses = new RollingTopK(HOUR, TOP_BUCKETS, TOP_MAX_KEYS);
+
+    public void record(final AccessAction action, final String username, final String address) {
+        final long now = System.currentTimeMillis();
+        minute.increment(action.ordinal(), now);
+        hour.increment(action.ordinal(), now);
+        if (action == AccessAction.LOGIN_FAILED || action == AccessAction.LOGIN_REFRESH_FAILED) {
+            failedUsernames.increment(username, now);
+            failedAddresses.increment(address, now);
+        }
+    }
+
+    public LoginStats snapshot(final int top, final Duration topWindow) {
+        final long now = System.currentTimeMillis();
+        return new LoginStats(
+            toMap(minute.sum(now)),
+            toMap(hour.sum(now)),
+            toEntries(failedUsernames.top(top, topWindow, now)),
+            toEntries(failedAddresses.top(top, topWindow, now))
+        );
+    }
+
+    private static Map<AccessAction, Long> toMap(final long[] totals) {
+        final Map<AccessAction, Long> map = new EnumMap<>(AccessAction.class);
+        for (final AccessAction action : ACTIONS) {
+            map.put(action, totals[action.ordinal()]);
+        }
+        return map;
+    }
+
+    private static List<LoginStats.Entry> toEntries(final List<Map.Entry<String, Long>> entries) {
+        return entries.stream()
+            .map((e) -> new LoginStats.Entry(e.getKey(), e.getValue()))
+            .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.pedrozc90.token.stats;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counters over a sliding window, split into a ring of time buckets with one striped
+ * {@link LongAdder} per slot. A bucket is recycled by the first writer that sees it belongs to an old epoch;
+ * increments racing with that reset may be lost, which is fine for monitoring.
+ */
+final class RollingCounter {
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final int slots;
+    private final AtomicLongArray epochs;
+    private final LongAdder[][] counts;
+
+    RollingCounter(final Duration window, final int buckets, final int slots) {
+        this.bucketMillis = window.toMillis() / buckets;
+        this.buckets = buckets;
+        this.slots = slots;
+        this.epochs = new AtomicLongArray(buckets);
+        this.counts = new LongAdder[buckets][slots];
+        for (int i = 0; i < buckets; i++) {
+            epochs.set(i, -1);
+            for (int j = 0; j < slots; j++) {
+                counts[i][j] = new LongAdder();
+            }
+        }
+    }
+
+    void increment(final int slot, final long now) {
+        final long epoch = now / bucketMillis;
+        final int i = (int) (epoch % buckets);
+        final long current = epochs.get(i);
+        if (current != epoch && epochs.compareAndSet(i, current, epoch)) {
+            for (final LongAdder adder : counts[i]) {
+                adder.reset();
+            }
+        }
+        counts[i][slot].increment();
+    }
+
+    long[] sum(final long now) {
+        final long epoch = now / bucketMillis;
+        final long[] totals = new long[slots];
+        for (int i = 0; i < buckets; i++) {
+            final long e = epochs.get(i);
+            if (e > epoch - buckets && e <= epoch) {
+                for (int j = 0; j < slots; j++) {
+                    totals[j] += counts[i][j].sum();
+                }
+            }
+        }
+        return totals;
+    }
+
+}
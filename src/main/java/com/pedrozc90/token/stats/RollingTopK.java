@@ -0,0 +1,136 @@
+package com.pedrozc90.token.stats;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Per-key counters over a sliding window of time buckets, used to find the most frequent keys.
+ * Each bucket is a Space-Saving summary of at most {@code maxKeys} counters: once it is full, a new key
+ * evicts the least frequent one and inherits its count, so memory stays bounded when keys are spread by
+ * an attacker while a key that keeps showing up always makes it in. Counts may be overestimated by at
+ * most the count of the evicted key.
+ * <p>
+ * Failed logins arrive from many threads at once, so each bucket is split into a few summaries picked by
+ * the calling thread, each holding an equal share of {@code maxKeys}; they are merged when a snapshot is
+ * taken. A hot key stays hot in every stripe it lands in, while writers only contend when they share a
+ * stripe.
+ */
+final class RollingTopK {
+
+    // a power of two, so the stripe of a thread is a mask away
+    private static final int STRIPES = Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()));
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final int stripeKeys;
+    private final AtomicLongArray epochs;
+    private final AtomicReferenceArray<Summary[]> summaries;
+
+    RollingTopK(final Duration window, final int buckets, final int maxKeys) {
+        this.bucketMillis = window.toMillis() / buckets;
+        this.buckets = buckets;
+        this.stripeKeys = Math.max(1, maxKeys / STRIPES);
+        this.epochs = new AtomicLongArray(buckets);
+        this.summaries = new AtomicReferenceArray<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            epochs.set(i, -1);
+            summaries.set(i, stripes());
+        }
+    }
+
+    private Summary[] stripes() {
+        final Summary[] stripes = new Summary[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Summary(stripeKeys);
+        }
+        return stripes;
+    }
+
+    void increment(final String key, final long now) {
+        if (key == null) return;
+        final long epoch = now / bucketMillis;
+        final int i = (int) (epoch % buckets);
+        final long current = epochs.get(i);
+        if (current != epoch && epochs.compareAndSet(i, current, epoch)) {
+            summaries.set(i, stripes());
+        }
+        summaries.get(i)[(int) Thread.currentThread().getId() & (STRIPES - 1)].increment(key);
+    }
+
+    // most frequent keys over the last {@code window}, which must not exceed the tracked window
+    List<Map.Entry<String, Long>> top(final int n, final Duration window, final long now) {
+        final long epoch = now / bucketMillis;
+        final long span = Math.max(1, Math.min(buckets, window.toMillis() / bucketMillis));
+        final Map<String, Long> merged = new HashMap<>();
+        for (int i = 0; i < buckets; i++) {
+            final long e = epochs.get(i);
+            if (e > epoch - span && e <= epoch) {
+                for (final Summary summary : summaries.get(i)) {
+                    summary.forEach((key, count) -> merged.merge(key, count, Long::sum));
+                }
+            }
+        }
+        return merged.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(n)
+            .collect(Collectors.toList());
+    }
+
+    private static final class Counter {
+
+        private final String key;
+        private long count;
+
+        private Counter(final String key, final long count) {
+            this.key = key;
+            this.count = count;
+        }
+
+    }
+
+    private static final class Summary {
+
+        private static final Comparator<Counter> ORDER = Comparator.<Counter>comparingLong((c) -> c.count).thenComparing((c) -> c.key);
+
+        private final int capacity;
+        private final Map<String, Counter> counters = new HashMap<>();
+        private final TreeSet<Counter> ordered = new TreeSet<>(ORDER);
+
+        private Summary(final int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void increment(final String key) {
+            Counter counter = counters.get(key);
+            if (counter != null) {
+                ordered.remove(counter);
+                counter.count++;
+            } else if (counters.size() < capacity) {
+                counter = new Counter(key, 1);
+                counters.put(key, counter);
+            } else {
+                final Counter min = ordered.pollFirst();
+                counters.remove(min.key);
+                counter = new Counter(key, min.count + 1);
+                counters.put(key, counter);
+            }
+            ordered.add(counter);
+        }
+
+        synchronized void forEach(final BiConsumer<String, Long> action) {
+            for (final Counter counter : counters.values()) {
+                action.accept(counter.key, counter.count);
+            }
+        }
+
+    }
+
+}
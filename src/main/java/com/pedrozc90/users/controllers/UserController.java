@@ -1,15 +1,26 @@
 package com.pedrozc90.users.controllers;
 
+import com.pedrozc90.core.authentication.password.PasswordHashingEngine;
 import com.pedrozc90.core.exceptions.ApplicationException;
+import com.pedrozc90.core.models.CountMode;
+import com.pedrozc90.core.models.ExportFormat;
 import com.pedrozc90.core.models.Page;
 import com.pedrozc90.core.models.ResultContent;
+import com.pedrozc90.core.models.SearchMode;
 import com.pedrozc90.users.models.Profile;
 import com.pedrozc90.users.models.User;
 import com.pedrozc90.users.models.UserData;
+import com.pedrozc90.users.models.UserImportResult;
 import com.pedrozc90.users.models.UserRegistration;
+import com.pedrozc90.users.models.UserSuggestion;
+import com.pedrozc90.users.repo.UserExporter;
+import com.pedrozc90.users.repo.UserImporter;
+import com.pedrozc90.users.repo.UserPrefixIndex;
 import com.pedrozc90.users.repo.UserRepository;
 import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
 import io.micronaut.http.annotation.*;
 import io.micronaut.scheduling.TaskExecutors;
 import io.micronaut.scheduling.annotation.ExecuteOn;
@@ -17,11 +28,18 @@ import io.micronaut.security.annotation.Secured;
 import io.micronaut.security.rules.SecurityRule;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import javax.persistence.PersistenceException;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.net.URI;
+import java.util.List;
 
 @Slf4j
 @Secured(SecurityRule.IS_AUTHENTICATED)
@@ -29,17 +47,76 @@ import java.net.URI;
 @Controller("/users")
 public class UserController {
 
-    private final UserRepository userRepository;
+    private static final String CURSOR_MODE = "cursor";
 
-    public UserController(final UserRepository userRepository) {
+    private final UserRepository userRepository;
+    private final UserPrefixIndex userPrefixIndex;
+    private final UserExporter userExporter;
+    private final UserImporter userImporter;
+    private final PasswordHashingEngine passwordHashingEngine;
+
+    public UserController(final UserRepository userRepository,
+                          final UserPrefixIndex userPrefixIndex,
+                          final UserExporter userExporter,
+                          final UserImporter userImporter,
+                          final PasswordHashingEngine passwordHashingEngine) {
         this.userRepository = userRepository;
+        this.userPrefixIndex = userPrefixIndex;
+        this.userExporter = userExporter;
+        this.userImporter = userImporter;
+        this.passwordHashingEngine = passwordHashingEngine;
     }
 
+    // mode=cursor (or passing a cursor) switches from offset pages to keyset pages,
+    // count=exact|estimate|none picks how the total of offset pages is computed,
+    // search=trigram matches q on any field and ranks offset pages by similarity
     @Get("/")
     public Page<User> fetch(@QueryValue(value = "page", defaultValue = "1") final int page,
                             @QueryValue(value = "rpp", defaultValue = "15") final int rpp,
-                            @Nullable @QueryValue(value = "q") final String q) {
-        return userRepository.fetch(page, rpp, q);
+                            @Nullable @QueryValue(value = "q") final String q,
+                            @Nullable @QueryValue(value = "mode") final String mode,
+                            @Nullable @QueryValue(value = "cursor") final String cursor,
+                            @Nullable @QueryValue(value = "count") final String count,
+                            @Nullable @QueryValue(value = "search") final String search) {
+        if (StringUtils.equalsIgnoreCase(mode, CURSOR_MODE) || StringUtils.isNotBlank(cursor)) {
+            return userRepository.fetch(cursor, rpp, q, SearchMode.of(search));
+        }
+        return userRepository.fetch(page, rpp, q, CountMode.of(count), SearchMode.of(search));
+    }
+
+    // served from the in-memory prefix index, never reaches the database
+    @Get("/autocomplete")
+    public List<UserSuggestion> autocomplete(@NotBlank @QueryValue(value = "q") final String q,
+                                             @Min(1) @Max(50) @QueryValue(value = "limit", defaultValue = "10") final int limit) {
+        return userPrefixIndex.suggest(q, limit);
+    }
+
+    // rows are streamed from a database cursor, format=ndjson|csv
+    // the response waits for the first chunk, so a refused or failed export still answers with an error status
+    @Get("/export")
+    public Mono<HttpResponse<Flux<byte[]>>> export(@Nullable @QueryValue(value = "format") final String format) {
+        final ExportFormat exportFormat = ExportFormat.of(format);
+        return userExporter.export(exportFormat)
+            .switchOnFirst((first, rows) -> {
+                if (first.hasError()) {
+                    return Mono.<HttpResponse<Flux<byte[]>>>error(first.getThrowable());
+                }
+                return Mono.<HttpResponse<Flux<byte[]>>>just(HttpResponse.ok(rows)
+                    .contentType(exportFormat.getMediaType())
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + exportFormat.getExtension() + "\""));
+            }, false)
+            .single();
+    }
+
+    // one request for many users, format=ndjson|csv (defaults to the content type), answers with a per-row report,
+    // the body is streamed and may be up to application.import.max-request-size
+    @Secured({ "MASTER" })
+    @Post(value = "/import", consumes = { ExportFormat.NDJSON_MEDIA_TYPE, ExportFormat.CSV_MEDIA_TYPE, MediaType.TEXT_PLAIN })
+    public UserImportResult importUsers(@Body final Publisher<byte[]> body,
+                                        @Nullable @Header(HttpHeaders.CONTENT_TYPE) final String contentType,
+                                        @Nullable @QueryValue(value = "format") final String format) {
+        final ExportFormat importFormat = StringUtils.isNotBlank(format) ? ExportFormat.of(format) : ExportFormat.ofMediaType(contentType);
+        return userImporter.importUsers(body, importFormat);
     }
 
     @Post("/")
@@ -53,7 +130,9 @@ public class UserController {
                 throw ApplicationException.of("Password and password confirm do not match.");
             }
 
-            final User user = userRepository.register(data);
+            // hashed before the transaction opens, so no connection is held while the key is derived
+            final String passwordHash = passwordHashingEngine.encode(data.getPassword()).block();
+            final User user = userRepository.register(data, passwordHash);
 
             return HttpResponse
                 .created(user)
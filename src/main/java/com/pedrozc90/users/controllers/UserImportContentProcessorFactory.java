@@ -0,0 +1,43 @@
+package com.pedrozc90.users.controllers;
+
+import com.pedrozc90.core.config.ImportConfigurationProperties;
+import com.pedrozc90.core.models.ExportFormat;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Consumes;
+import io.micronaut.http.server.HttpServerConfiguration;
+import io.micronaut.http.server.netty.DefaultHttpContentProcessor;
+import io.micronaut.http.server.netty.HttpContentProcessor;
+import io.micronaut.http.server.netty.HttpContentSubscriberFactory;
+import io.micronaut.http.server.netty.NettyHttpRequest;
+import jakarta.inject.Singleton;
+
+/**
+ * Raises the request size limit for the streamed body of {@code POST /users/import} only.
+ * <p>
+ * Streamed bodies of these media types are read through this factory; every other request keeps
+ * the server wide {@code micronaut.server.max-request-size}.
+ */
+@Singleton
+@Consumes({ ExportFormat.NDJSON_MEDIA_TYPE, ExportFormat.CSV_MEDIA_TYPE, MediaType.TEXT_PLAIN })
+public class UserImportContentProcessorFactory implements HttpContentSubscriberFactory {
+
+    public static final String IMPORT_PATH = "/users/import";
+
+    private final HttpServerConfiguration serverConfiguration;
+    private final HttpServerConfiguration importConfiguration;
+
+    public UserImportContentProcessorFactory(final HttpServerConfiguration serverConfiguration,
+                                             final ImportConfigurationProperties config) {
+        this.serverConfiguration = serverConfiguration;
+        this.importConfiguration = new HttpServerConfiguration();
+        this.importConfiguration.setMaxRequestSize(config.getMaxRequestSize());
+    }
+
+    @Override
+    public HttpContentProcessor build(final NettyHttpRequest request) {
+        final boolean isImport = request.getMethod() == HttpMethod.POST && IMPORT_PATH.equals(request.getPath());
+        return new DefaultHttpContentProcessor(request, isImport ? importConfiguration : serverConfiguration);
+    }
+
+}
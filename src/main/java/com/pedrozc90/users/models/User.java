@@ -5,8 +5,12 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.pedrozc90.core.audit.Audit;
 import com.pedrozc90.core.audit.Auditable;
 import com.pedrozc90.core.audit.listeners.AuditListener;
+import com.pedrozc90.core.data.PooledSequenceGenerator;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.Email;
@@ -29,10 +33,12 @@ public class User implements Serializable, Auditable {
 
     @ToString.Include
     @Id
-    // @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", schema = "public", initialValue = 1)
     @Schema(name = "id")
     @JsonProperty("id")
-    @GeneratedValue(strategy = GenerationType.AUTO, generator = "users_id_seq")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @GenericGenerator(name = "users_id_seq", strategy = PooledSequenceGenerator.STRATEGY, parameters = {
+        @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "public.users_id_seq")
+    })
     private Long id;
 
     @Embedded
@@ -70,9 +76,9 @@ public class User implements Serializable, Auditable {
     @ToString.Include
     @NotNull
     @NotBlank
-    @Size(max = 32)
+    @Size(max = 255)
     @Schema(name = "password")
-    @Column(name = "password", length = 32, nullable = false)
+    @Column(name = "password", length = 255, nullable = false)
     private String password;
 
     @Transient
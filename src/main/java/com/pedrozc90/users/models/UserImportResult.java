@@ -0,0 +1,32 @@
+package com.pedrozc90.users.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Introspected
+public class UserImportResult implements Serializable {
+
+    @JsonProperty("total")
+    private int total;
+
+    @JsonProperty("created")
+    private int created;
+
+    @JsonProperty("failed")
+    private int failed;
+
+    @JsonProperty("elapsed_ms")
+    private long elapsedMs;
+
+    @JsonProperty("rows")
+    private List<UserImportRow> rows;
+
+}
@@ -0,0 +1,37 @@
+package com.pedrozc90.users.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Introspected
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportRow implements Serializable {
+
+    public enum Status {
+        CREATED, INVALID, DUPLICATE, FAILED
+    }
+
+    @JsonProperty("line")
+    private int line;
+
+    @JsonProperty("status")
+    private Status status;
+
+    @JsonProperty("id")
+    private Long id;
+
+    @JsonProperty("username")
+    private String username;
+
+    @JsonProperty("message")
+    private String message;
+
+}
@@ -0,0 +1,21 @@
+package com.pedrozc90.users.models;
+
+import io.micronaut.core.annotation.Introspected;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Introspected
+public class UserSuggestion implements Serializable {
+
+    private Long id;
+
+    private String username;
+
+    private String email;
+
+}
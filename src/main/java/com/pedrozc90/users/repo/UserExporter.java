@@ -0,0 +1,268 @@
+package com.pedrozc90.users.repo;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.pedrozc90.core.config.ExportConfigurationProperties;
+import com.pedrozc90.core.exceptions.ApplicationException;
+import com.pedrozc90.core.models.ExportFormat;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Streams the users table from a server-side cursor, serializing rows as they are read and emitting
+ * them in chunks on demand, so heap usage does not grow with the number of rows exported.
+ * <p>
+ * Every export holds a pooled connection and an open transaction until it ends, so the number of
+ * concurrent exports is capped and an export is aborted once it runs longer than the timeout.
+ */
+@Slf4j
+@Singleton
+public class UserExporter {
+
+    private static final String SELECT_SQL = "SELECT id, username, email, profile, active, inserted_at, updated_at " +
+        "FROM public.users ORDER BY id";
+    private static final String[] COLUMNS = { "id", "username", "email", "profile", "active", "inserted_at", "updated_at" };
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final DataSource dataSource;
+    private final ExportConfigurationProperties config;
+    private final Semaphore permits;
+
+    public UserExporter(final DataSource dataSource, final ExportConfigurationProperties config) {
+        this.dataSource = dataSource;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxConcurrent());
+    }
+
+    /**
+     * The permit is taken on subscription and released when the export ends, is cancelled or times out,
+     * so a flux that is never subscribed holds nothing. Errors with a 503 when {@code max-concurrent}
+     * exports are already running.
+     */
+    public Flux<byte[]> export(final ExportFormat format) {
+        return Flux.defer(() -> {
+            if (!permits.tryAcquire()) {
+                return Flux.error(ApplicationException.of("Too many exports running, try again later.").serviceUnavailable());
+            }
+            final long deadline = System.nanoTime() + config.getTimeout().toNanos();
+            final Supplier<Mono<Long>> remaining = () -> Mono.delay(Duration.ofNanos(Math.max(0L, deadline - System.nanoTime())));
+            // the per-chunk timeouts all end at the same deadline, which bounds the whole export
+            return rows(format)
+                .timeout(remaining.get(), (chunk) -> remaining.get())
+                .doFinally((signal) -> permits.release());
+        });
+    }
+
+    private Flux<byte[]> rows(final ExportFormat format) {
+        return Flux.<byte[], Cursor>generate(
+                () -> new Cursor(format),
+                (cursor, sink) -> {
+                    try {
+                        final byte[] chunk = cursor.next();
+                        if (chunk == null) {
+                            sink.complete();
+                        } else {
+                            sink.next(chunk);
+                        }
+                    } catch (SQLException | IOException e) {
+                        // a statement cancelled by a timeout or cancel is expected to fail
+                        if (!cursor.isClosed()) {
+                            log.error("user export failed: {}", e.getMessage(), e);
+                        }
+                        sink.error(e);
+                    }
+                    return cursor;
+                },
+                Cursor::close
+            )
+            // jdbc blocks, keep it off the event loop
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * A timeout or cancel may close the cursor from another thread while a chunk is being read. The
+     * resources are only released by whoever holds the cursor last: right away when it is idle, otherwise
+     * by the generating thread once the current chunk ends, after {@link Statement#cancel()} cut it short.
+     */
+    private final class Cursor {
+
+        private static final int IDLE = 0;
+        private static final int READING = 1;
+        private static final int CLOSE_REQUESTED = 2;
+        private static final int CLOSED = 3;
+
+        private final ExportFormat format;
+        private final Connection conn;
+        private final PreparedStatement ps;
+        private final ResultSet rs;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(config.getChunkSize() + 1024);
+        private final Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+        private boolean header;
+        private boolean done;
+
+        private Cursor(final ExportFormat format) throws SQLException {
+            this.format = format;
+            this.conn = dataSource.getConnection();
+            try {
+                // postgres only uses a server-side cursor with auto-commit off and a fetch size set
+                conn.setAutoCommit(false);
+                conn.setReadOnly(true);
+                this.ps = conn.prepareStatement(SELECT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(config.getFetchSize());
+                this.rs = ps.executeQuery();
+            } catch (SQLException e) {
+                conn.close();
+                throw e;
+            }
+        }
+
+        private byte[] next() throws SQLException, IOException {
+            if (!state.compareAndSet(IDLE, READING)) return null;
+            try {
+                return read();
+            } finally {
+                if (!state.compareAndSet(READING, IDLE)) {
+                    release();
+                }
+            }
+        }
+
+        private byte[] read() throws SQLException, IOException {
+            if (done) return null;
+            buffer.reset();
+            if (format == ExportFormat.CSV && !header) {
+                writer.write(String.join(",", COLUMNS));
+                writer.write('\n');
+                header = true;
+            }
+            while (buffer.size() < config.getChunkSize()) {
+                if (!rs.next()) {
+                    done = true;
+                    break;
+                }
+                if (format == ExportFormat.CSV) {
+                    writeCsv();
+                } else {
+                    writeJson();
+                }
+                writer.flush();
+            }
+            writer.flush();
+            return buffer.size() > 0 ? buffer.toByteArray() : null;
+        }
+
+        private void writeJson() throws SQLException, IOException {
+            try (final JsonGenerator gen = JSON.createGenerator(writer)) {
+                gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                gen.writeStartObject();
+                gen.writeNumberField("id", rs.getLong(1));
+                gen.writeStringField("username", rs.getString(2));
+                gen.writeStringField("email", rs.getString(3));
+                gen.writeStringField("profile", rs.getString(4));
+                gen.writeBooleanField("active", rs.getBoolean(5));
+                gen.writeStringField("inserted_at", timestamp(rs.getTimestamp(6)));
+                gen.writeStringField("updated_at", timestamp(rs.getTimestamp(7)));
+                gen.writeEndObject();
+            }
+            writer.write('\n');
+        }
+
+        private void writeCsv() throws SQLException, IOException {
+            writer.write(Long.toString(rs.getLong(1)));
+            writer.write(',');
+            writer.write(csv(rs.getString(2)));
+            writer.write(',');
+            writer.write(csv(rs.getString(3)));
+            writer.write(',');
+            writer.write(csv(rs.getString(4)));
+            writer.write(',');
+            writer.write(Boolean.toString(rs.getBoolean(5)));
+            writer.write(',');
+            writer.write(csv(timestamp(rs.getTimestamp(6))));
+            writer.write(',');
+            writer.write(csv(timestamp(rs.getTimestamp(7))));
+            writer.write('\n');
+        }
+
+        private void close() {
+            while (true) {
+                final int current = state.get();
+                if (current == IDLE && state.compareAndSet(IDLE, CLOSED)) {
+                    release();
+                    return;
+                } else if (current == READING && state.compareAndSet(READING, CLOSE_REQUESTED)) {
+                    closeQuietly(ps::cancel);
+                    return;
+                } else if (current == CLOSE_REQUESTED || current == CLOSED) {
+                    return;
+                }
+            }
+        }
+
+        private boolean isClosed() {
+            return state.get() == CLOSED;
+        }
+
+        private void release() {
+            state.set(CLOSED);
+            closeQuietly(rs::close);
+            closeQuietly(ps::close);
+            closeQuietly(conn::rollback);
+            closeQuietly(conn::close);
+        }
+
+    }
+
+    private interface SqlAction {
+
+        void run() throws SQLException;
+
+    }
+
+    private static void closeQuietly(final SqlAction action) {
+        try {
+            action.run();
+        } catch (SQLException e) {
+            log.warn("failed to close user export cursor: {}", e.getMessage());
+        }
+    }
+
+    private static String timestamp(final Timestamp value) {
+        return value != null ? value.toInstant().toString() : null;
+    }
+
+    // cells starting with = + - @ (or a tab or carriage return) are read as formulas by spreadsheets,
+    // a leading quote keeps them as text
+    private static String csv(final String value) {
+        if (value == null) return "";
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            return csv("'" + value);
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+}
@@ -0,0 +1,373 @@
+package com.pedrozc90.users.repo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.pedrozc90.core.authentication.password.PasswordHashingEngine;
+import com.pedrozc90.core.concurrent.BoundedExecutor;
+import com.pedrozc90.core.concurrent.BoundedExecutorFactory;
+import com.pedrozc90.core.config.ImportConfigurationProperties;
+import com.pedrozc90.core.exceptions.ApplicationException;
+import com.pedrozc90.core.models.ExportFormat;
+import com.pedrozc90.users.models.User;
+import com.pedrozc90.users.models.UserImportResult;
+import com.pedrozc90.users.models.UserImportRow;
+import com.pedrozc90.users.models.UserImportRow.Status;
+import com.pedrozc90.users.models.UserRegistration;
+import io.micronaut.validation.validator.Validator;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.validation.ConstraintViolation;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Imports users from NDJSON or CSV in a handful of round trips instead of one request per user:
+ * rows are validated in parallel, uniqueness is checked with set-based lookups, passwords are
+ * hashed concurrently on the import pool and users are inserted in jdbc batches.
+ * <p>
+ * Hashing dominates: every row pays one full key derivation, so an import runs at about
+ * {@code hashing-threads} rows per derivation time. It never touches the hashing pool used by logins.
+ * <p>
+ * Every row gets an entry in the report; a batch that fails to insert only fails its own rows.
+ */
+@Slf4j
+@Singleton
+public class UserImporter {
+
+    private final UserRepository userRepository;
+    private final PasswordHashingEngine passwordHashingEngine;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ImportConfigurationProperties config;
+    private final BoundedExecutor executor;
+
+    public UserImporter(final UserRepository userRepository,
+                        final PasswordHashingEngine passwordHashingEngine,
+                        final Validator validator,
+                        final ObjectMapper objectMapper,
+                        final ImportConfigurationProperties config,
+                        @Named(BoundedExecutorFactory.IMPORT) final BoundedExecutor executor) {
+        this.userRepository = userRepository;
+        this.passwordHashingEngine = passwordHashingEngine;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.executor = executor;
+    }
+
+    /**
+     * Reads the streamed request body as utf-8 while parsing it, so the raw payload is never held as a whole.
+     * Blocks until the body is consumed, must not run on the event loop.
+     */
+    public UserImportResult importUsers(final Publisher<byte[]> body, final ExportFormat format) {
+        final Iterator<InputStream> chunks = Iterators.transform(Flux.from(body).toIterable().iterator(), ByteArrayInputStream::new);
+        try (final Reader reader = new InputStreamReader(new SequenceInputStream(Iterators.asEnumeration(chunks)), StandardCharsets.UTF_8)) {
+            return importUsers(reader, format);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public UserImportResult importUsers(final Reader body, final ExportFormat format) throws IOException {
+        final long start = System.nanoTime();
+
+        final BufferedReader reader = (body instanceof BufferedReader) ? (BufferedReader) body : new BufferedReader(body);
+        final List<Row> rows = (format == ExportFormat.CSV) ? parseCsv(reader) : parseNdjson(reader);
+
+        // bean validation is cpu bound and independent per row
+        Flux.fromIterable(rows)
+            .filter(Row::isPending)
+            .parallel(config.getParallelism())
+            .runOn(Schedulers.parallel())
+            .doOnNext(this::validate)
+            .sequential()
+            .blockLast();
+
+        rejectDuplicates(rows);
+        rejectTaken(rows);
+
+        final List<Row> accepted = rows.stream().filter(Row::isPending).collect(Collectors.toList());
+
+        // at most one hash in flight per import thread, the rest wait here instead of in the pool queue
+        Flux.fromIterable(accepted)
+            .flatMap((row) -> passwordHashingEngine.encode(row.data.getPassword(), executor)
+                .doOnNext((hash) -> row.hash = hash)
+                .onErrorResume((e) -> {
+                    row.fail(Status.FAILED, e.getMessage());
+                    return Mono.empty();
+                }), config.getHashingThreads())
+            .blockLast();
+
+        for (final List<Row> batch : Lists.partition(accepted, config.getBatchSize())) {
+            insert(batch);
+        }
+
+        final List<UserImportRow> report = rows.stream().map(Row::toReport).collect(Collectors.toList());
+        final int created = (int) report.stream().filter((r) -> r.getStatus() == Status.CREATED).count();
+        final long elapsed = (System.nanoTime() - start) / 1_000_000L;
+        log.info("user import: {} rows, {} created, {} failed in {} ms.", rows.size(), created, rows.size() - created, elapsed);
+
+        return new UserImportResult(rows.size(), created, rows.size() - created, elapsed, report);
+    }
+
+    private void validate(final Row row) {
+        final Set<ConstraintViolation<UserRegistration>> violations = validator.validate(row.data);
+        if (!violations.isEmpty()) {
+            final String message = violations.stream()
+                .map((v) -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+            row.fail(Status.INVALID, message);
+        } else if (!StringUtils.equals(row.data.getPassword(), row.data.getPasswordConfirm())) {
+            row.fail(Status.INVALID, "Password and password confirm do not match.");
+        }
+    }
+
+    // the first occurrence of an email or username inside the payload wins
+    private void rejectDuplicates(final List<Row> rows) {
+        final Set<String> emails = new HashSet<>();
+        final Set<String> usernames = new HashSet<>();
+        for (final Row row : rows) {
+            if (!row.isPending()) continue;
+            if (!emails.add(row.email())) {
+                row.fail(Status.DUPLICATE, String.format("Email %s is repeated in the import.", row.data.getEmail()));
+            } else if (!usernames.add(row.username())) {
+                row.fail(Status.DUPLICATE, String.format("Username %s is repeated in the import.", row.data.getUsername()));
+            }
+        }
+    }
+
+    private void rejectTaken(final List<Row> rows) {
+        final List<Row> pending = rows.stream().filter(Row::isPending).collect(Collectors.toList());
+
+        final Set<String> emails = new HashSet<>();
+        final Set<String> usernames = new HashSet<>();
+        for (final List<Row> chunk : Lists.partition(pending, config.getLookupSize())) {
+            emails.addAll(userRepository.findTakenEmails(chunk.stream().map(Row::email).collect(Collectors.toList())));
+            usernames.addAll(userRepository.findTakenUsernames(chunk.stream().map(Row::username).collect(Collectors.toList())));
+        }
+
+        for (final Row row : pending) {
+            if (emails.contains(row.email())) {
+                row.fail(Status.DUPLICATE, String.format("Email %s already in use.", row.data.getEmail()));
+            } else if (usernames.contains(row.username())) {
+                row.fail(Status.DUPLICATE, String.format("Username %s already in use.", row.data.getUsername()));
+            }
+        }
+    }
+
+    private void insert(final List<Row> batch) {
+        final List<Row> ready = batch.stream().filter(Row::isPending).collect(Collectors.toList());
+        final List<User> users = new ArrayList<>(ready.size());
+        for (final Row row : ready) {
+            final User user = new User();
+            user.setEmail(row.data.getEmail());
+            user.setUsername(row.data.getUsername());
+            user.setPassword(row.hash);
+            users.add(user);
+        }
+
+        try {
+            userRepository.saveBatch(users);
+            for (int i = 0; i < ready.size(); i++) {
+                ready.get(i).created(users.get(i).getId());
+            }
+        } catch (RuntimeException e) {
+            // constraint violations surface either at flush or wrapped by the commit
+            log.error("user import batch of {} rows failed: {}", ready.size(), e.getMessage(), e);
+            ready.forEach((row) -> row.fail(Status.FAILED, "Batch insert failed, rows were not imported."));
+        }
+    }
+
+    private List<Row> parseNdjson(final BufferedReader reader) throws IOException {
+        final List<Row> rows = new ArrayList<>();
+        int number = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            if (StringUtils.isBlank(line)) continue;
+            final Row row = new Row(number);
+            try {
+                row.data = objectMapper.readValue(line, UserRegistration.class);
+                if (row.data == null) {
+                    row.fail(Status.INVALID, "Empty record.");
+                }
+            } catch (JsonProcessingException e) {
+                row.fail(Status.INVALID, "Malformed json: " + e.getOriginalMessage());
+            }
+            add(rows, row);
+        }
+        return rows;
+    }
+
+    // header row with email, username, password and optionally password_confirm, in any order
+    private List<Row> parseCsv(final BufferedReader reader) throws IOException {
+        final CsvReader csv = new CsvReader(reader);
+        final List<String> first = csv.next();
+        if (first == null) return new ArrayList<>();
+
+        final List<String> header = first.stream()
+            .map((h) -> h.trim().toLowerCase(Locale.ROOT))
+            .collect(Collectors.toList());
+        final int email = header.indexOf("email");
+        final int username = header.indexOf("username");
+        final int password = header.indexOf("password");
+        final int passwordConfirm = header.indexOf("password_confirm");
+        if (email < 0 || username < 0 || password < 0) {
+            throw ApplicationException.of("CSV header must contain email, username and password columns.").badRequest();
+        }
+
+        final List<Row> rows = new ArrayList<>();
+        int number = 1;
+        List<String> fields;
+        while ((fields = csv.next()) != null) {
+            number++;
+            if (fields.size() == 1 && StringUtils.isBlank(fields.get(0))) continue;
+            final Row row = new Row(number);
+            if (fields.size() != header.size()) {
+                row.fail(Status.INVALID, String.format("Expected %d columns, found %d.", header.size(), fields.size()));
+            } else {
+                row.data = UserRegistration.builder()
+                    .email(fields.get(email))
+                    .username(fields.get(username))
+                    .password(fields.get(password))
+                    .passwordConfirm(passwordConfirm >= 0 ? fields.get(passwordConfirm) : fields.get(password))
+                    .build();
+            }
+            add(rows, row);
+        }
+        return rows;
+    }
+
+    // fails as soon as the limit is crossed instead of after reading the whole payload
+    private void add(final List<Row> rows, final Row row) {
+        if (rows.size() >= config.getMaxRows()) {
+            throw ApplicationException.of("Import is limited to %d rows.", config.getMaxRows()).badRequest();
+        }
+        rows.add(row);
+    }
+
+    // rfc 4180: quoted fields may contain commas, doubled quotes and line breaks
+    static final class CsvReader {
+
+        private final Reader reader;
+        private int pending = -1;
+
+        CsvReader(final Reader reader) {
+            this.reader = reader;
+        }
+
+        // the fields of the next record, or null at the end of the input
+        List<String> next() throws IOException {
+            final List<String> fields = new ArrayList<>();
+            final StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean empty = true;
+            int c;
+            while ((c = read()) != -1) {
+                empty = false;
+                if (quoted) {
+                    if (c == '"') {
+                        final int n = read();
+                        if (n == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            pending = n;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        final int n = read();
+                        if (n != '\n') pending = n;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+            }
+            if (empty) return null;
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private int read() throws IOException {
+            if (pending != -1) {
+                final int c = pending;
+                pending = -1;
+                return c;
+            }
+            return reader.read();
+        }
+
+    }
+
+    private static final class Row {
+
+        private final int line;
+        private UserRegistration data;
+        private String hash;
+        private Status status;
+        private Long id;
+        private String message;
+
+        private Row(final int line) {
+            this.line = line;
+        }
+
+        private boolean isPending() {
+            return status == null;
+        }
+
+        private String email() {
+            return data.getEmail().toLowerCase(Locale.ROOT);
+        }
+
+        private String username() {
+            return data.getUsername().toLowerCase(Locale.ROOT);
+        }
+
+        private void fail(final Status status, final String message) {
+            this.status = status;
+            this.message = message;
+        }
+
+        private void created(final Long id) {
+            this.status = Status.CREATED;
+            this.id = id;
+        }
+
+        private UserImportRow toReport() {
+            final String username = (data != null) ? data.getUsername() : null;
+            return new UserImportRow(line, status, id, username, message);
+        }
+
+    }
+
+}
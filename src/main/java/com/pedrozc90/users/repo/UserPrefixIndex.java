@@ -0,0 +1,157 @@
+package com.pedrozc90.users.repo;
+
+import com.pedrozc90.core.querydsl.JPAQuery;
+import com.pedrozc90.users.models.QUser;
+import com.pedrozc90.users.models.User;
+import com.pedrozc90.users.models.UserSuggestion;
+import com.querydsl.core.types.Projections;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.transaction.annotation.ReadOnly;
+import io.micronaut.transaction.hibernate5.HibernateTransactionManager;
+import io.micronaut.transaction.support.SynchronousTransactionState;
+import io.micronaut.transaction.support.TransactionSynchronization;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.persistence.EntityManager;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted in-memory map of lower-cased usernames and emails to user ids, answering autocomplete
+ * prefix lookups without touching the database.
+ * <p>
+ * It is loaded once at startup and kept in sync by the {@link UserRepository} save and remove hooks;
+ * changes made inside a transaction are only applied after it commits. Writers are serialized and a
+ * user's new terms are indexed before the old ones are dropped, so a concurrent {@link #suggest} never
+ * misses a user that is being updated.
+ */
+@Slf4j
+@Singleton
+public class UserPrefixIndex {
+
+    private final EntityManager em;
+    private final HibernateTransactionManager transactionManager;
+    private final ConcurrentNavigableMap<String, Set<Long>> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, UserSuggestion> users = new ConcurrentHashMap<>();
+
+    public UserPrefixIndex(final EntityManager em, final HibernateTransactionManager transactionManager) {
+        this.em = em;
+        this.transactionManager = transactionManager;
+    }
+
+    @ReadOnly
+    @EventListener
+    public void onStartup(final StartupEvent event) {
+        final List<UserSuggestion> list = new JPAQuery<UserSuggestion>(em)
+            .from(QUser.user)
+            .select(Projections.constructor(UserSuggestion.class, QUser.user.id, QUser.user.username, QUser.user.email))
+            .fetch();
+        list.forEach(this::put);
+        log.info("user prefix index loaded with {} users.", users.size());
+    }
+
+    public List<UserSuggestion> suggest(final String prefix, final int limit) {
+        final String key = normalize(prefix);
+        if (key == null) return Collections.emptyList();
+
+        final Set<Long> ids = new LinkedHashSet<>();
+        for (final Set<Long> matches : terms.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            for (final Long id : matches) {
+                ids.add(id);
+                if (ids.size() >= limit) break;
+            }
+            if (ids.size() >= limit) break;
+        }
+
+        final List<UserSuggestion> result = new ArrayList<>(ids.size());
+        for (final Long id : ids) {
+            // a term being replaced may still point at the user for an instant
+            final UserSuggestion suggestion = users.get(id);
+            if (suggestion != null && (matches(suggestion.getUsername(), key) || matches(suggestion.getEmail(), key))) {
+                result.add(suggestion);
+            }
+        }
+        return result;
+    }
+
+    public void onSaved(final User user) {
+        final UserSuggestion suggestion = new UserSuggestion(user.getId(), user.getUsername(), user.getEmail());
+        afterCommit(() -> put(suggestion));
+    }
+
+    public void onRemoved(final User user) {
+        final Long id = user.getId();
+        afterCommit(() -> remove(id));
+    }
+
+    private synchronized void put(final UserSuggestion suggestion) {
+        if (suggestion.getId() == null) return;
+        final Long id = suggestion.getId();
+        final UserSuggestion previous = users.put(id, suggestion);
+        index(suggestion.getUsername(), id);
+        index(suggestion.getEmail(), id);
+        if (previous != null) {
+            unindexStale(previous.getUsername(), suggestion, id);
+            unindexStale(previous.getEmail(), suggestion, id);
+        }
+    }
+
+    private synchronized void remove(final Long id) {
+        final UserSuggestion previous = users.remove(id);
+        if (previous == null) return;
+        unindex(previous.getUsername(), id);
+        unindex(previous.getEmail(), id);
+    }
+
+    // drops an old term unless the new username or email still uses it
+    private void unindexStale(final String term, final UserSuggestion current, final Long id) {
+        final String key = normalize(term);
+        if (key == null || key.equals(normalize(current.getUsername())) || key.equals(normalize(current.getEmail()))) return;
+        unindex(term, id);
+    }
+
+    private void index(final String term, final Long id) {
+        final String key = normalize(term);
+        if (key == null) return;
+        terms.computeIfAbsent(key, (k) -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    private void unindex(final String term, final Long id) {
+        final String key = normalize(term);
+        if (key == null) return;
+        terms.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static boolean matches(final String value, final String prefix) {
+        final String key = normalize(value);
+        return key != null && key.startsWith(prefix);
+    }
+
+    private static String normalize(final String value) {
+        if (value == null) return null;
+        final String key = value.trim().toLowerCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
+
+    private void afterCommit(final Runnable action) {
+        final SynchronousTransactionState state = transactionManager.find().orElse(null);
+        if (state != null && state.isSynchronizationActive()) {
+            state.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+}
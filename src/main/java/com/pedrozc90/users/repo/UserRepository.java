@@ -1,26 +1,45 @@
 package com.pedrozc90.users.repo;
 
+import com.pedrozc90.core.authentication.TokenAuthenticationCache;
 import com.pedrozc90.core.data.CrudRepository;
+import com.pedrozc90.core.exceptions.ApplicationException;
+import com.pedrozc90.core.models.CountMode;
 import com.pedrozc90.core.models.Page;
+import com.pedrozc90.core.models.SearchMode;
 import com.pedrozc90.core.querydsl.JPAQuery;
+import com.pedrozc90.core.utils.CursorUtils;
 import com.pedrozc90.users.models.QUser;
 import com.pedrozc90.users.models.User;
 import com.pedrozc90.users.models.UserData;
 import com.pedrozc90.users.models.UserRegistration;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAUpdateClause;
 import io.micronaut.transaction.annotation.ReadOnly;
 import jakarta.inject.Singleton;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Singleton
 public class UserRepository extends CrudRepository<User, Long> {
 
-    public UserRepository(final EntityManager em) {
+    private final UserPrefixIndex userPrefixIndex;
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+
+    public UserRepository(final EntityManager em,
+                          final UserPrefixIndex userPrefixIndex,
+                          final TokenAuthenticationCache tokenAuthenticationCache) {
         super(em, User.class, QUser.user);
+        this.userPrefixIndex = userPrefixIndex;
+        this.tokenAuthenticationCache = tokenAuthenticationCache;
     }
 
     @ReadOnly
@@ -40,16 +59,71 @@ public class UserRepository extends CrudRepository<User, Long> {
 
     @ReadOnly
     public Page<User> fetch(final int page, final int rpp, final String q) {
+        return fetch(page, rpp, q, CountMode.EXACT, SearchMode.CONTAINS);
+    }
+
+    @ReadOnly
+    public Page<User> fetch(final int page, final int rpp, final String q, final CountMode countMode, final SearchMode searchMode) {
+        final JPAQuery<User> query = createQuery().from(QUser.user);
+
+        search(query, q, searchMode);
+
+        if (StringUtils.isNotBlank(q) && searchMode == SearchMode.TRIGRAM) {
+            query.orderBy(relevance(q).desc());
+        }
+        query.orderBy(QUser.user.username.asc());
+
+        return Page.create(query, page, rpp, countMode);
+    }
+
+    /**
+     * Same listing as {@link #fetch(int, int, String, CountMode, SearchMode)}, but seeking past the (username, id) encoded in the
+     * cursor instead of skipping rows with an offset, so every page costs the same.
+     */
+    @ReadOnly
+    public Page<User> fetch(final String cursor, final int rpp, final String q) {
+        return fetch(cursor, rpp, q, SearchMode.CONTAINS);
+    }
+
+    @ReadOnly
+    public Page<User> fetch(final String cursor, final int rpp, final String q, final SearchMode searchMode) {
         final JPAQuery<User> query = createQuery().from(QUser.user);
 
-        if (StringUtils.isNotBlank(q)) {
+        search(query, q, searchMode);
+
+        if (StringUtils.isNotBlank(cursor)) {
+            final String[] values = CursorUtils.decode(cursor, 2);
+            final String username = values[0];
+            final Long id;
+            try {
+                id = Long.valueOf(values[1]);
+            } catch (NumberFormatException e) {
+                throw ApplicationException.of("Invalid cursor.").badRequest();
+            }
+            query.where(QUser.user.username.goe(username))
+                .where(QUser.user.username.gt(username).or(QUser.user.username.eq(username).and(QUser.user.id.gt(id))));
+        }
+
+        query.orderBy(QUser.user.username.asc(), QUser.user.id.asc());
+
+        return Page.keyset(query, rpp, StringUtils.isNotBlank(cursor), (u) -> CursorUtils.encode(u.getUsername(), u.getId()));
+    }
+
+    private void search(final JPAQuery<User> query, final String q, final SearchMode searchMode) {
+        if (StringUtils.isBlank(q)) return;
+        if (searchMode == SearchMode.TRIGRAM) {
+            // lower(x) like '%q%' on either field, both served by the gin_trgm_ops indexes
+            query.where(QUser.user.email.containsIgnoreCase(q).or(QUser.user.username.containsIgnoreCase(q)));
+        } else {
             query.where(QUser.user.email.containsIgnoreCase(q))
                 .where(QUser.user.username.containsIgnoreCase(q));
         }
+    }
 
-        query.orderBy(QUser.user.username.asc());
-
-        return Page.create(query, page, rpp);
+    private NumberExpression<Float> relevance(final String q) {
+        final String text = q.toLowerCase();
+        return Expressions.numberTemplate(Float.class, "function('greatest', function('similarity', lower({0}), {2}), function('similarity', lower({1}), {2}))",
+            QUser.user.username, QUser.user.email, text);
     }
 
     @ReadOnly
@@ -62,9 +136,45 @@ public class UserRepository extends CrudRepository<User, Long> {
         return exists(QUser.user.email.equalsIgnoreCase(username));
     }
 
+    /**
+     * Lower-cased emails among the given ones that already belong to a user.
+     */
+    @ReadOnly
+    public Set<String> findTakenEmails(final Collection<String> emails) {
+        if (emails.isEmpty()) return Collections.emptySet();
+        return new HashSet<>(createQuery().from(QUser.user)
+            .select(QUser.user.email.lower())
+            .where(QUser.user.email.lower().in(emails))
+            .fetch());
+    }
+
+    /**
+     * Lower-cased usernames among the given ones that already belong to a user.
+     */
+    @ReadOnly
+    public Set<String> findTakenUsernames(final Collection<String> usernames) {
+        if (usernames.isEmpty()) return Collections.emptySet();
+        return new HashSet<>(createQuery().from(QUser.user)
+            .select(QUser.user.username.lower())
+            .where(QUser.user.username.lower().in(usernames))
+            .fetch());
+    }
+
+    /**
+     * Inserts already validated users in a single jdbc batch and detaches them, so the persistence
+     * context does not grow across batches.
+     */
+    @Transactional
+    public List<User> saveBatch(final List<User> users) {
+        if (users.isEmpty()) return users;
+        return saveMany(users, users.size());
+    }
+
     @Transactional
     public User update(final User user, final UserData data) {
         if (user == null) return null;
+        // tokens carry the username, so the ones issued under the previous name are dropped as well
+        tokenAuthenticationCache.invalidate(user.getUsername());
         user.setUsername(data.getUsername());
         user.setEmail(data.getEmail());
         user.setProfile(data.getProfile());
@@ -74,13 +184,33 @@ public class UserRepository extends CrudRepository<User, Long> {
     }
 
     @Transactional
-    public User register(final UserRegistration data) {
+    public User register(final UserRegistration data, final String passwordHash) {
         final User user = new User();
         user.setEmail(data.getEmail());
         user.setUsername(data.getUsername());
-        user.setPassword(DigestUtils.md5Hex(data.getPassword()));
-        user.setPasswordConfirm(DigestUtils.md5Hex(data.getPasswordConfirm()));
+        user.setPassword(passwordHash);
         return super.save(user);
     }
 
-}
\ No newline at end of file
+    // only username and email are indexed, so the bulk password update below does not need the hook
+    @Override
+    protected void afterSave(final User user) {
+        userPrefixIndex.onSaved(user);
+        tokenAuthenticationCache.invalidate(user.getUsername());
+    }
+
+    @Override
+    protected void afterRemove(final User user) {
+        userPrefixIndex.onRemoved(user);
+        tokenAuthenticationCache.invalidate(user.getUsername());
+    }
+
+    @Transactional
+    public void updatePassword(final Long id, final String password) {
+        new JPAUpdateClause(em, QUser.user)
+            .set(QUser.user.password, password)
+            .where(QUser.user.id.eq(id))
+            .execute();
+    }
+
+}
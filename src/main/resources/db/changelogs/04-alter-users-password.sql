@@ -0,0 +1,8 @@
+-- liquibase formatted sql
+
+-- changeset pedrozc90:1 context:dev,prd
+
+-- salted hashes are longer than the legacy md5 hex digest
+ALTER TABLE public.users ALTER COLUMN password TYPE varchar(255);
+
+-- rollback ALTER TABLE public.users ALTER COLUMN password TYPE varchar(32);
@@ -0,0 +1,21 @@
+-- liquibase formatted sql
+
+-- changeset pedrozc90:1 context:dev,prd
+
+-- refresh tokens are looked up by their sha-256 digest instead of the full jwt text
+ALTER TABLE public.refresh_token ADD COLUMN IF NOT EXISTS token_hash varchar(64);
+
+UPDATE public.refresh_token SET token_hash = encode(sha256(convert_to(refresh_token, 'UTF8')), 'hex') WHERE token_hash IS NULL;
+
+-- keep only the most recent row when the same token was stored more than once
+DELETE FROM public.refresh_token a USING public.refresh_token b WHERE a.token_hash = b.token_hash AND a.id < b.id;
+
+ALTER TABLE public.refresh_token ALTER COLUMN token_hash SET NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS refresh_token_token_hash_ukey ON public.refresh_token (token_hash);
+
+ALTER TABLE public.refresh_token DROP COLUMN IF EXISTS refresh_token;
+
+-- rollback ALTER TABLE public.refresh_token ADD COLUMN IF NOT EXISTS refresh_token text;
+-- rollback DROP INDEX IF EXISTS refresh_token_token_hash_ukey;
+-- rollback ALTER TABLE public.refresh_token DROP COLUMN IF EXISTS token_hash;
@@ -0,0 +1,18 @@
+-- liquibase formatted sql
+
+-- changeset pedrozc90:1 context:dev,prd
+
+-- every login starts a token family, each refresh retires the parent and adds a child to the same family
+ALTER TABLE public.refresh_token ADD COLUMN IF NOT EXISTS family_id uuid;
+ALTER TABLE public.refresh_token ADD COLUMN IF NOT EXISTS parent_id bigint;
+
+-- existing tokens become the root of their own family
+UPDATE public.refresh_token SET family_id = md5(id::text || random()::text)::uuid WHERE family_id IS NULL;
+
+ALTER TABLE public.refresh_token ALTER COLUMN family_id SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS refresh_token_family_id_idx ON public.refresh_token (family_id) WHERE revoked = false;
+
+-- rollback DROP INDEX IF EXISTS refresh_token_family_id_idx;
+-- rollback ALTER TABLE public.refresh_token DROP COLUMN IF EXISTS parent_id;
+-- rollback ALTER TABLE public.refresh_token DROP COLUMN IF EXISTS family_id;
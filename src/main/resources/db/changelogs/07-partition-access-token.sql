@@ -0,0 +1,125 @@
+-- liquibase formatted sql
+
+-- changeset pedrozc90:1 splitStatements:false context:dev,prd
+
+-- access_token becomes a table partitioned by month on inserted_at, the existing heap is kept as the
+-- partition holding everything up to the end of the current month, so no rows are copied
+DO $$
+DECLARE
+    bound timestamp := date_trunc('month', localtimestamp) + interval '1 month';
+BEGIN
+    ALTER TABLE public.access_token RENAME TO access_token_legacy;
+    ALTER TABLE public.access_token_legacy RENAME CONSTRAINT access_token_pkey TO access_token_legacy_pkey;
+    ALTER INDEX public.access_token_username_idx RENAME TO access_token_legacy_username_idx;
+
+    CREATE TABLE public.access_token (
+        id              bigint NOT NULL DEFAULT nextval('access_token_id_seq'),
+
+        -- audit
+        inserted_at     timestamp without time zone NOT NULL DEFAULT current_timestamp,
+        updated_at      timestamp without time zone NOT NULL DEFAULT current_timestamp,
+        version         integer NOT NULL DEFAULT 1,
+
+        user_agent      varchar(255),
+        address         varchar(255),
+        action          varchar(32) NOT NULL DEFAULT 'LOGIN',
+        username        varchar(32),
+        access_token    text,
+        refresh_token   text,
+
+        CONSTRAINT access_token_pkey PRIMARY KEY (id, inserted_at)
+    ) PARTITION BY RANGE (inserted_at);
+
+    CREATE INDEX access_token_username_inserted_at_idx ON public.access_token (username, inserted_at);
+
+    -- catches rows for months the maintenance task has not created yet
+    CREATE TABLE public.access_token_default PARTITION OF public.access_token DEFAULT;
+
+    INSERT INTO public.access_token SELECT * FROM public.access_token_legacy WHERE inserted_at >= bound;
+    DELETE FROM public.access_token_legacy WHERE inserted_at >= bound;
+
+    EXECUTE format('ALTER TABLE public.access_token ATTACH PARTITION public.access_token_legacy FOR VALUES FROM (MINVALUE) TO (%L)', bound);
+END $$;
+
+-- rollback ALTER TABLE public.access_token DETACH PARTITION public.access_token_legacy;
+-- rollback INSERT INTO public.access_token_legacy SELECT * FROM public.access_token;
+-- rollback DROP TABLE public.access_token;
+-- rollback ALTER TABLE public.access_token_legacy RENAME CONSTRAINT access_token_legacy_pkey TO access_token_pkey;
+-- rollback ALTER INDEX public.access_token_legacy_username_idx RENAME TO access_token_username_idx;
+-- rollback ALTER TABLE public.access_token_legacy RENAME TO access_token;
+
+-- changeset pedrozc90:2 stripComments:true splitStatements:false context:dev,prd
+
+-- upper bound of a partition of access_token, read from its partition bound so the monthly partitions
+-- and access_token_legacy (MINVALUE up to the end of the migration month) are handled alike
+CREATE OR REPLACE FUNCTION access_token_partition_end(partition_oid oid) RETURNS timestamp AS $$
+    SELECT substring(pg_get_expr(c.relpartbound, c.oid) from 'TO \(''([^'']+)''\)')::timestamp
+    FROM pg_class c
+    WHERE c.oid = partition_oid;
+$$ LANGUAGE sql STABLE;
+
+-- creates the monthly partitions up to months_ahead, starting after the last range already covered,
+-- rows that landed in the default partition for a month are moved into that month's partition
+CREATE OR REPLACE FUNCTION create_access_token_partitions(months_ahead integer) RETURNS integer AS $$
+DECLARE
+    covered timestamp;
+    month_start timestamp;
+    month_end timestamp;
+    partition_name text;
+    created integer := 0;
+BEGIN
+    SELECT max(access_token_partition_end(i.inhrelid)) INTO covered
+    FROM pg_inherits i
+    WHERE i.inhparent = 'public.access_token'::regclass
+    AND i.inhrelid <> 'public.access_token_default'::regclass;
+
+    FOR i IN 0..months_ahead LOOP
+        month_start := date_trunc('month', localtimestamp) + make_interval(months => i);
+        month_end := month_start + interval '1 month';
+        partition_name := 'access_token_p' || to_char(month_start, 'YYYYMM');
+        CONTINUE WHEN covered IS NOT NULL AND month_start < covered;
+        CONTINUE WHEN to_regclass('public.' || partition_name) IS NOT NULL;
+
+        -- creating the partition directly fails while the default partition holds rows of its range
+        EXECUTE format('CREATE TABLE public.%I (LIKE public.access_token INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+        EXECUTE format('WITH moved AS (DELETE FROM public.access_token_default WHERE inserted_at >= %L AND inserted_at < %L RETURNING *) '
+            'INSERT INTO public.%I SELECT * FROM moved', month_start, month_end, partition_name);
+        EXECUTE format('ALTER TABLE public.access_token ATTACH PARTITION public.%I FOR VALUES FROM (%L) TO (%L)',
+            partition_name, month_start, month_end);
+        created := created + 1;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- drops, or only detaches, the partitions whose whole range is older than the retention, including
+-- access_token_legacy once its last month falls out of the retention
+CREATE OR REPLACE FUNCTION drop_access_token_partitions(retention interval, detach_only boolean) RETURNS integer AS $$
+DECLARE
+    part record;
+    removed integer := 0;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'public.access_token'::regclass
+        AND c.relname <> 'access_token_default'
+        AND access_token_partition_end(c.oid) <= localtimestamp - retention
+    LOOP
+        IF detach_only THEN
+            EXECUTE format('ALTER TABLE public.access_token DETACH PARTITION public.%I', part.relname);
+        ELSE
+            EXECUTE format('DROP TABLE public.%I', part.relname);
+        END IF;
+        removed := removed + 1;
+    END LOOP;
+    RETURN removed;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_access_token_partitions(3);
+
+-- rollback DROP FUNCTION IF EXISTS drop_access_token_partitions(retention interval, detach_only boolean);
+-- rollback DROP FUNCTION IF EXISTS create_access_token_partitions(months_ahead integer);
+-- rollback DROP FUNCTION IF EXISTS access_token_partition_end(partition_oid oid);
@@ -0,0 +1,69 @@
+-- liquibase formatted sql
+
+-- changeset pedrozc90:1 context:dev,prd
+
+CREATE SEQUENCE IF NOT EXISTS public.user_agent_id_seq START WITH 1 INCREMENT BY 1 NO MINVALUE NO MAXVALUE CACHE 1;
+
+-- every distinct user agent is stored once and referenced by id from access_token
+CREATE TABLE IF NOT EXISTS public.user_agent (
+    id              integer DEFAULT nextval('user_agent_id_seq'),
+    value           varchar(255) NOT NULL,
+
+    CONSTRAINT user_agent_pkey PRIMARY KEY (id),
+    CONSTRAINT user_agent_value_ukey UNIQUE (value)
+);
+
+-- rollback DROP TABLE IF EXISTS user_agent;
+-- rollback DROP SEQUENCE IF EXISTS user_agent_id_seq;
+
+-- changeset pedrozc90:2 stripComments:true splitStatements:false context:dev,prd
+
+-- parses the stored InetSocketAddress.toString() / x-forwarded-for text, returning null when it is not an address
+CREATE OR REPLACE FUNCTION try_inet(value text) RETURNS inet AS $$
+BEGIN
+    RETURN coalesce(trim(split_part(value, ',', 1)), '')::inet;
+EXCEPTION WHEN others THEN
+    BEGIN
+        RETURN substring(value from '/?(\d{1,3}(?:\.\d{1,3}){3})')::inet;
+    EXCEPTION WHEN others THEN
+        RETURN NULL;
+    END;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+-- rollback DROP FUNCTION IF EXISTS try_inet(value text);
+
+-- changeset pedrozc90:3 context:dev,prd
+
+-- access_token keeps token digests, a native inet address and a user agent reference instead of raw text
+INSERT INTO public.user_agent (value)
+SELECT DISTINCT user_agent FROM public.access_token WHERE user_agent IS NOT NULL
+ON CONFLICT (value) DO NOTHING;
+
+ALTER TABLE public.access_token
+    ADD COLUMN IF NOT EXISTS user_agent_id integer,
+    ADD COLUMN IF NOT EXISTS access_token_hash varchar(64),
+    ADD COLUMN IF NOT EXISTS refresh_token_hash varchar(64);
+
+-- the refresh token is a jws whose payload is the key stored in refresh_token.token_hash
+UPDATE public.access_token a SET
+    user_agent_id = (SELECT u.id FROM public.user_agent u WHERE u.value = a.user_agent),
+    access_token_hash = encode(sha256(convert_to(a.access_token, 'UTF8')), 'hex'),
+    refresh_token_hash = encode(sha256(decode(rpad(translate(split_part(a.refresh_token, '.', 2), '-_', '+/'),
+        ((length(split_part(a.refresh_token, '.', 2)) + 3) / 4) * 4, '='), 'base64')), 'hex')
+WHERE a.user_agent IS NOT NULL OR a.access_token IS NOT NULL OR a.refresh_token IS NOT NULL;
+
+ALTER TABLE public.access_token ALTER COLUMN address TYPE inet USING try_inet(address);
+
+ALTER TABLE public.access_token
+    DROP COLUMN IF EXISTS user_agent,
+    DROP COLUMN IF EXISTS access_token,
+    DROP COLUMN IF EXISTS refresh_token;
+
+ALTER TABLE public.access_token ADD CONSTRAINT access_token_user_agent_id_fkey FOREIGN KEY (user_agent_id) REFERENCES public.user_agent (id);
+
+-- rollback ALTER TABLE public.access_token DROP CONSTRAINT IF EXISTS access_token_user_agent_id_fkey;
+-- rollback ALTER TABLE public.access_token ADD COLUMN IF NOT EXISTS user_agent varchar(255), ADD COLUMN IF NOT EXISTS access_token text, ADD COLUMN IF NOT EXISTS refresh_token text;
+-- rollback UPDATE public.access_token a SET user_agent = (SELECT u.value FROM public.user_agent u WHERE u.id = a.user_agent_id);
+-- rollback ALTER TABLE public.access_token ALTER COLUMN address TYPE varchar(255) USING host(address);
+-- rollback ALTER TABLE public.access_token DROP COLUMN IF EXISTS user_agent_id, DROP COLUMN IF EXISTS access_token_hash, DROP COLUMN IF EXISTS refresh_token_hash;
@@ -0,0 +1,11 @@
+-- liquibase formatted sql
+
+-- changeset pedrozc90:1 context:dev,prd
+
+-- matches the access history keyset order, so pages seek straight to (username, inserted_at, id)
+CREATE INDEX IF NOT EXISTS access_token_username_inserted_at_id_idx ON public.access_token (username, inserted_at, id);
+
+DROP INDEX IF EXISTS public.access_token_username_inserted_at_idx;
+
+-- rollback CREATE INDEX IF NOT EXISTS access_token_username_inserted_at_idx ON public.access_token (username, inserted_at);
+-- rollback DROP INDEX IF EXISTS access_token_username_inserted_at_id_idx;
@@ -0,0 +1,12 @@
+-- liquibase formatted sql
+
+-- changeset pedrozc90:1 context:dev,prd
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- serve lower(x) like '%q%' and similarity() on the user search fields
+CREATE INDEX IF NOT EXISTS users_username_trgm_idx ON public.users USING gin (lower(username) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS users_email_trgm_idx ON public.users USING gin (lower(email) gin_trgm_ops);
+
+-- rollback DROP INDEX IF EXISTS users_email_trgm_idx;
+-- rollback DROP INDEX IF EXISTS users_username_trgm_idx;
@@ -0,0 +1,15 @@
+-- liquibase formatted sql
+
+-- changeset pedrozc90:1 runOnChange:true context:dev,prd
+
+-- hibernate reserves a block of ids per nextval (pooled-lo), so the increment must equal
+-- the hibernate.id.allocation_size property, passed in as the id-allocation-size parameter;
+-- the changeset runs again whenever it changes. rows inserted with DEFAULT nextval stay unique,
+-- they simply consume a whole block
+ALTER SEQUENCE public.users_id_seq INCREMENT BY ${id-allocation-size};
+ALTER SEQUENCE public.access_token_id_seq INCREMENT BY ${id-allocation-size};
+ALTER SEQUENCE public.refresh_token_id_seq INCREMENT BY ${id-allocation-size};
+
+-- rollback ALTER SEQUENCE public.refresh_token_id_seq INCREMENT BY 1;
+-- rollback ALTER SEQUENCE public.access_token_id_seq INCREMENT BY 1;
+-- rollback ALTER SEQUENCE public.users_id_seq INCREMENT BY 1;
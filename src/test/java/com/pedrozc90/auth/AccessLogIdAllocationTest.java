@@ -0,0 +1,73 @@
+package com.pedrozc90.auth;
+
+import com.pedrozc90.token.models.AccessAction;
+import com.pedrozc90.token.models.AccessToken;
+import com.pedrozc90.token.repo.AccessTokenWriter;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+@MicronautTest(transactional = false)
+@Property(name = "application.access-log.async", value = "false")
+public class AccessLogIdAllocationTest {
+
+    private static final String USERNAME = "access-log-ids";
+
+    @Inject
+    private AccessTokenWriter accessTokenWriter;
+
+    @Inject
+    private DataSource dataSource;
+
+    @AfterEach
+    public void cleanup() throws SQLException {
+        try (final Connection conn = dataSource.getConnection();
+             final PreparedStatement ps = conn.prepareStatement("DELETE FROM public.access_token WHERE username = ?")) {
+            ps.setString(1, USERNAME);
+            ps.executeUpdate();
+        }
+    }
+
+    private List<Long> ids() throws SQLException {
+        final List<Long> ids = new ArrayList<>();
+        try (final Connection conn = dataSource.getConnection();
+             final PreparedStatement ps = conn.prepareStatement("SELECT id FROM public.access_token WHERE username = ? ORDER BY id")) {
+            ps.setString(1, USERNAME);
+            try (final ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    @Test
+    public void rowsShareOneSequenceBlock() throws SQLException {
+        for (int i = 0; i < 3; i++) {
+            final AccessToken at = new AccessToken();
+            at.setAction(AccessAction.LOGIN);
+            at.setAddress("127.0.0.1");
+            at.setUsername(USERNAME);
+            accessTokenWriter.write(at);
+        }
+
+        // consecutive ids, instead of one whole block per row
+        final List<Long> ids = ids();
+        Assertions.assertEquals(3, ids.size());
+        Assertions.assertEquals(ids.get(0) + 1, ids.get(1));
+        Assertions.assertEquals(ids.get(1) + 1, ids.get(2));
+    }
+
+}
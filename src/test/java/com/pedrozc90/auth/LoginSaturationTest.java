@@ -0,0 +1,67 @@
+package com.pedrozc90.auth;
+
+import com.pedrozc90.core.concurrent.BoundedExecutor;
+import com.pedrozc90.core.concurrent.BoundedExecutorFactory;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@MicronautTest
+@Property(name = "application.login.threads", value = "1")
+@Property(name = "application.login.queue-size", value = "1")
+public class LoginSaturationTest {
+
+    private BlockingHttpClient blockingClient;
+
+    @Inject
+    @Client("/")
+    private HttpClient client;
+
+    @Inject
+    @Named(BoundedExecutorFactory.LOGIN)
+    private BoundedExecutor loginExecutor;
+
+    @BeforeEach
+    public void setup() {
+        blockingClient = client.toBlocking();
+    }
+
+    @Test
+    public void saturatedLoginPoolReturns503() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            // one task occupies the only worker, the second fills the queue
+            loginExecutor.submit(() -> {
+                started.countDown();
+                return release.await(30, TimeUnit.SECONDS);
+            }).subscribe();
+            Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+            loginExecutor.submit(() -> release.await(30, TimeUnit.SECONDS)).subscribe();
+            Assertions.assertTrue(loginExecutor.isSaturated());
+
+            final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials("admin", "wrong");
+            final HttpClientResponseException e = Assertions.assertThrows(HttpClientResponseException.class,
+                () -> blockingClient.exchange(HttpRequest.POST("/login", credentials), BearerAccessRefreshToken.class));
+            Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        } finally {
+            release.countDown();
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.pedrozc90.auth;
+
+import com.pedrozc90.core.authentication.LoginThrottle;
+import com.pedrozc90.core.config.LoginThrottleConfigurationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Locale;
+
+public class LoginThrottleBackoffTest {
+
+    private static final String ATTACKER = "10.0.0.1";
+    private static final String OWNER = "10.0.0.2";
+
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    public void setup() {
+        final LoginThrottleConfigurationProperties config = new LoginThrottleConfigurationProperties();
+        config.setUsernameCapacity(10);
+        config.setFreeFailures(3);
+        config.setBaseBackoff(Duration.ofMinutes(1));
+        throttle = new LoginThrottle(config, new SimpleMeterRegistry());
+    }
+
+    private void failFrom(final String username, final String address, final int times) {
+        for (int i = 0; i < times; i++) {
+            Assertions.assertTrue(throttle.tryAcquire(username, address));
+            throttle.onFailure(username, address);
+        }
+    }
+
+    @Test
+    public void backoffBlocksOnlyTheFailingAddress() {
+        failFrom("victim", ATTACKER, 4);
+
+        Assertions.assertFalse(throttle.tryAcquire("victim", ATTACKER));
+        Assertions.assertTrue(throttle.retryAfter("victim", ATTACKER).compareTo(Duration.ofSeconds(30)) > 0);
+
+        // the account owner logging in from elsewhere is not locked out
+        Assertions.assertTrue(throttle.tryAcquire("victim", OWNER));
+    }
+
+    @Test
+    public void freeFailuresDoNotBlock() {
+        failFrom("member", ATTACKER, 3);
+        Assertions.assertTrue(throttle.tryAcquire("member", ATTACKER));
+    }
+
+    @Test
+    public void successClearsTheBackoff() {
+        failFrom("member", OWNER, 3);
+        throttle.onSuccess("member", OWNER);
+        failFrom("member", OWNER, 3);
+        Assertions.assertTrue(throttle.tryAcquire("member", OWNER));
+    }
+
+    @Test
+    public void usernamesAreCaseInsensitiveRegardlessOfDefaultLocale() {
+        final Locale previous = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            failFrom("ADMIN", ATTACKER, 4);
+            Assertions.assertFalse(throttle.tryAcquire("admin", ATTACKER));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    public void usernameBucketIgnoresTheAddress() {
+        // every attempt comes from a new address, the account still runs out of attempts
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(throttle.tryAcquire("victim", "10.1.0." + i));
+        }
+        Assertions.assertFalse(throttle.tryAcquire("victim", "10.1.0.200"));
+        Assertions.assertFalse(throttle.tryAcquire("victim", OWNER));
+        Assertions.assertTrue(throttle.retryAfter("victim", "10.1.0.201").compareTo(Duration.ZERO) > 0);
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.pedrozc90.auth;
+
+import com.pedrozc90.core.utils.RequestUtils;
+import com.pedrozc90.token.stats.LoginStatistics;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+@MicronautTest
+@Property(name = "application.login.throttle.username-capacity", value = "2")
+public class LoginThrottleTest {
+
+    private BlockingHttpClient blockingClient;
+
+    @Inject
+    @Client("/")
+    private HttpClient client;
+
+    @Inject
+    private LoginStatistics loginStatistics;
+
+    @BeforeEach
+    public void setup() {
+        blockingClient = client.toBlocking();
+    }
+
+    @Test
+    public void throttledLoginReturns429WithRetryAfter() {
+        final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials("throttled", "wrong");
+
+        for (int i = 0; i < 2; i++) {
+            final HttpClientResponseException e = Assertions.assertThrows(HttpClientResponseException.class,
+                () -> blockingClient.exchange(HttpRequest.POST("/login", credentials), BearerAccessRefreshToken.class));
+            Assertions.assertEquals(HttpStatus.UNAUTHORIZED, e.getStatus());
+        }
+
+        final HttpClientResponseException e = Assertions.assertThrows(HttpClientResponseException.class,
+            () -> blockingClient.exchange(HttpRequest.POST("/login", credentials), BearerAccessRefreshToken.class));
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+
+        final String retryAfter = e.getResponse().getHeaders().get(HttpHeaders.RETRY_AFTER);
+        Assertions.assertNotNull(retryAfter);
+        Assertions.assertTrue(Long.parseLong(retryAfter) >= 1);
+    }
+
+    @Test
+    public void rotatingForwardedForDoesNotEvadeTheThrottle() {
+        final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials("rotating", "wrong");
+
+        // without a trusted proxy the header is ignored, and the username bucket ignores the address anyway
+        for (int i = 0; i < 2; i++) {
+            final HttpRequest<?> request = HttpRequest.POST("/login", credentials).header(RequestUtils.X_FORWARDED_FOR, "198.51.100." + i);
+            final HttpClientResponseException e = Assertions.assertThrows(HttpClientResponseException.class,
+                () -> blockingClient.exchange(request, BearerAccessRefreshToken.class));
+            Assertions.assertEquals(HttpStatus.UNAUTHORIZED, e.getStatus());
+        }
+
+        final HttpRequest<?> request = HttpRequest.POST("/login", credentials).header(RequestUtils.X_FORWARDED_FOR, "198.51.100.99");
+        final HttpClientResponseException e = Assertions.assertThrows(HttpClientResponseException.class,
+            () -> blockingClient.exchange(request, BearerAccessRefreshToken.class));
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+
+        final boolean spoofed = loginStatistics.snapshot(10, Duration.ofHours(1)).getTopFailedAddresses().stream()
+            .anyMatch((entry) -> entry.getKey().startsWith("198.51.100."));
+        Assertions.assertFalse(spoofed);
+    }
+
+}
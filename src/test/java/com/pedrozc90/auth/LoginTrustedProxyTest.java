@@ -0,0 +1,74 @@
+package com.pedrozc90.auth;
+
+import com.pedrozc90.core.utils.RequestUtils;
+import com.pedrozc90.token.stats.LoginStatistics;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@MicronautTest
+@Property(name = "application.proxy.trusted-addresses", value = "127.0.0.0/8,::1")
+@Property(name = "application.login.throttle.username-capacity", value = "2")
+public class LoginTrustedProxyTest {
+
+    private BlockingHttpClient blockingClient;
+
+    @Inject
+    @Client("/")
+    private HttpClient client;
+
+    @Inject
+    private LoginStatistics loginStatistics;
+
+    @BeforeEach
+    public void setup() {
+        blockingClient = client.toBlocking();
+    }
+
+    private HttpStatus login(final String username, final String forwardedFor) {
+        final HttpRequest<?> request = HttpRequest.POST("/login", new UsernamePasswordCredentials(username, "wrong"))
+            .header(RequestUtils.X_FORWARDED_FOR, forwardedFor);
+        final HttpClientResponseException e = Assertions.assertThrows(HttpClientResponseException.class,
+            () -> blockingClient.exchange(request, BearerAccessRefreshToken.class));
+        return e.getStatus();
+    }
+
+    private List<String> failedAddresses() {
+        return loginStatistics.snapshot(50, Duration.ofHours(1)).getTopFailedAddresses().stream()
+            .map((entry) -> entry.getKey())
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void forwardedForIsReadBehindATrustedProxy() {
+        // the client appended its own fake hop, only the one added by the trusted proxy counts
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, login("proxied", "192.0.2.1, 203.0.113.7"));
+
+        final List<String> addresses = failedAddresses();
+        Assertions.assertTrue(addresses.contains("203.0.113.7"), addresses.toString());
+        Assertions.assertFalse(addresses.contains("192.0.2.1"), addresses.toString());
+    }
+
+    @Test
+    public void rotatingAddressesStillHitTheUsernameBucket() {
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, login("rotated", "203.0.113.10"));
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, login("rotated", "203.0.113.11"));
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS, login("rotated", "203.0.113.12"));
+    }
+
+}
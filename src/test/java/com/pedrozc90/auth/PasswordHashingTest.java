@@ -0,0 +1,98 @@
+package com.pedrozc90.auth;
+
+import com.pedrozc90.core.authentication.password.Md5PasswordHasher;
+import com.pedrozc90.core.authentication.password.PasswordHashingEngine;
+import com.pedrozc90.core.authentication.password.PasswordMatch;
+import com.pedrozc90.core.authentication.password.Pbkdf2PasswordHasher;
+import com.pedrozc90.core.concurrent.BoundedExecutor;
+import com.pedrozc90.core.config.PasswordConfigurationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PasswordHashingTest {
+
+    private static final int ITERATIONS = 1_000;
+
+    private final Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(ITERATIONS, 16, 32);
+
+    private BoundedExecutor executor;
+    private PasswordHashingEngine engine;
+
+    @BeforeEach
+    public void setup() {
+        final PasswordConfigurationProperties config = new PasswordConfigurationProperties();
+        config.setIterations(ITERATIONS);
+        executor = new BoundedExecutor("hashing-test", 1, 16, new SimpleMeterRegistry());
+        engine = new PasswordHashingEngine(config, executor);
+    }
+
+    @AfterEach
+    public void teardown() {
+        executor.close();
+    }
+
+    @Test
+    public void encodeIsSaltedAndVerifies() {
+        final String first = hasher.hash("secret");
+        final String second = hasher.hash("secret");
+        Assertions.assertTrue(first.startsWith("$" + Pbkdf2PasswordHasher.ID + "$" + ITERATIONS + "$"));
+        Assertions.assertNotEquals(first, second);
+        Assertions.assertTrue(hasher.matches("secret", first));
+        Assertions.assertFalse(hasher.matches("wrong", first));
+    }
+
+    @Test
+    public void needsRehashWhenIterationsAreOutdated() {
+        final String outdated = new Pbkdf2PasswordHasher(ITERATIONS / 2, 16, 32).hash("secret");
+        Assertions.assertTrue(hasher.needsRehash(outdated));
+        Assertions.assertFalse(hasher.needsRehash(hasher.hash("secret")));
+    }
+
+    @Test
+    public void malformedHashDoesNotMatchAndNeedsRehash() {
+        for (final String malformed : new String[] {
+            "$pbkdf2-sha256$abc$c2FsdA$a2V5",
+            "$pbkdf2-sha256$-1$c2FsdA$a2V5",
+            "$pbkdf2-sha256$1000$not base64!$a2V5",
+            "$pbkdf2-sha256$1000$c2FsdA"
+        }) {
+            Assertions.assertFalse(hasher.matches("secret", malformed), malformed);
+            Assertions.assertTrue(hasher.needsRehash(malformed), malformed);
+        }
+    }
+
+    @Test
+    public void engineRehashesLegacyHashes() {
+        final String md5 = new Md5PasswordHasher().hash("secret");
+
+        final PasswordMatch match = engine.verify("secret", md5).block();
+        Assertions.assertNotNull(match);
+        Assertions.assertTrue(match.isMatched());
+        Assertions.assertTrue(match.getRehashed().isPresent());
+        Assertions.assertTrue(hasher.matches("secret", match.getRehashed().get()));
+
+        final PasswordMatch failed = engine.verify("wrong", md5).block();
+        Assertions.assertNotNull(failed);
+        Assertions.assertFalse(failed.isMatched());
+    }
+
+    @Test
+    public void engineDoesNotRehashCurrentHashes() {
+        final String encoded = engine.encode("secret").block();
+        final PasswordMatch match = engine.verify("secret", encoded).block();
+        Assertions.assertNotNull(match);
+        Assertions.assertTrue(match.isMatched());
+        Assertions.assertTrue(match.getRehashed().isEmpty());
+    }
+
+    @Test
+    public void engineRejectsUnknownUsers() {
+        final PasswordMatch match = engine.verify("secret", null).block();
+        Assertions.assertNotNull(match);
+        Assertions.assertFalse(match.isMatched());
+    }
+
+}
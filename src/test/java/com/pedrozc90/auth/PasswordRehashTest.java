@@ -0,0 +1,62 @@
+package com.pedrozc90.auth;
+
+import com.pedrozc90.core.authentication.password.Md5PasswordHasher;
+import com.pedrozc90.core.authentication.password.Pbkdf2PasswordHasher;
+import com.pedrozc90.users.models.User;
+import com.pedrozc90.users.models.UserRegistration;
+import com.pedrozc90.users.repo.UserRepository;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@MicronautTest
+public class PasswordRehashTest {
+
+    private BlockingHttpClient blockingClient;
+
+    @Inject
+    @Client("/")
+    private HttpClient client;
+
+    @Inject
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void setup() {
+        blockingClient = client.toBlocking();
+        userRepository.findByUsername("legacy").ifPresent((v) -> userRepository.remove(v));
+    }
+
+    @Test
+    public void legacyHashIsUpgradedOnLogin() {
+        final UserRegistration data = UserRegistration.builder()
+            .email("legacy@email.com")
+            .username("legacy")
+            .password("secret")
+            .passwordConfirm("secret")
+            .build();
+        final User user = userRepository.register(data, new Md5PasswordHasher().hash("secret"));
+
+        final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials("legacy", "secret");
+        final HttpResponse<BearerAccessRefreshToken> response = blockingClient.exchange(HttpRequest.POST("/login", credentials), BearerAccessRefreshToken.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatus());
+
+        final User upgraded = userRepository.findByIdOrThrowException(user.getId());
+        Assertions.assertTrue(upgraded.getPassword().startsWith("$" + Pbkdf2PasswordHasher.ID + "$"));
+
+        // the upgraded hash keeps working
+        final HttpResponse<BearerAccessRefreshToken> again = blockingClient.exchange(HttpRequest.POST("/login", credentials), BearerAccessRefreshToken.class);
+        Assertions.assertEquals(HttpStatus.OK, again.getStatus());
+    }
+
+}
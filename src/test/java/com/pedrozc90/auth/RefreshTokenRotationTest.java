@@ -0,0 +1,92 @@
+package com.pedrozc90.auth;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+@MicronautTest(transactional = false)
+@Property(name = "application.refresh-token.reuse-grace-period", value = "1s")
+public class RefreshTokenRotationTest {
+
+    private static final long GRACE_PERIOD_MILLIS = 1_000L;
+
+    private BlockingHttpClient blockingClient;
+
+    @Inject
+    @Client("/")
+    private HttpClient client;
+
+    @BeforeEach
+    public void setup() {
+        blockingClient = client.toBlocking();
+    }
+
+    private String login() {
+        final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials("master", "1");
+        final HttpResponse<BearerAccessRefreshToken> response = blockingClient.exchange(HttpRequest.POST("/login", credentials), BearerAccessRefreshToken.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatus());
+        return response.body().getRefreshToken();
+    }
+
+    private String refresh(final String refreshToken) {
+        final Map<String, String> body = Map.of("grant_type", "refresh_token", "refresh_token", refreshToken);
+        final HttpResponse<BearerAccessRefreshToken> response = blockingClient.exchange(HttpRequest.POST("/oauth/access_token", body), BearerAccessRefreshToken.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatus());
+        final String child = response.body().getRefreshToken();
+        Assertions.assertNotNull(child);
+        Assertions.assertNotEquals(refreshToken, child);
+        return child;
+    }
+
+    private void assertRejected(final String refreshToken) {
+        final HttpClientResponseException e = Assertions.assertThrows(HttpClientResponseException.class, () -> refresh(refreshToken));
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+    }
+
+    @Test
+    public void refreshRotatesTheToken() {
+        final String parent = login();
+        final String child = refresh(parent);
+        final String grandchild = refresh(child);
+        Assertions.assertNotNull(grandchild);
+    }
+
+    @Test
+    public void reuseWithinGracePeriodKeepsTheFamily() {
+        final String parent = login();
+        final String child = refresh(parent);
+
+        // a concurrent refresh of the same token loses, but is not a replay
+        assertRejected(parent);
+        Assertions.assertNotNull(refresh(child));
+    }
+
+    @Test
+    public void replayAfterGracePeriodRevokesTheFamily() throws InterruptedException {
+        final String other = login();
+        final String parent = login();
+        final String child = refresh(parent);
+
+        Thread.sleep(GRACE_PERIOD_MILLIS + 500L);
+
+        assertRejected(parent);
+        // every token of the replayed family is gone, other sessions of the same user are not
+        assertRejected(child);
+        Assertions.assertNotNull(refresh(other));
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.pedrozc90.auth;
+
+import com.pedrozc90.core.authentication.TokenAuthenticationCache;
+import com.pedrozc90.core.config.TokenCacheConfigurationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.security.authentication.Authentication;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TokenAuthenticationCacheTest {
+
+    private TokenAuthenticationCache cache;
+
+    @BeforeEach
+    public void setup() {
+        final TokenCacheConfigurationProperties config = new TokenCacheConfigurationProperties();
+        config.setEnabled(true);
+        config.setMaximumSize(2);
+        config.setMaximumTtl(Duration.ofMinutes(5));
+        cache = new TokenAuthenticationCache(config, new SimpleMeterRegistry());
+    }
+
+    private static Authentication authentication(final String username) {
+        final long exp = Instant.now().plus(Duration.ofHours(1)).getEpochSecond();
+        return Authentication.build(username, List.of("NORMAL"), Map.of("exp", exp));
+    }
+
+    private void put(final String token, final Authentication authentication) {
+        cache.put(token, authentication, cache.stamp());
+    }
+
+    @Test
+    public void invalidateDropsOnlyTheTokensOfThatUser() {
+        put("alice-1", authentication("alice"));
+        put("bob-1", authentication("bob"));
+
+        cache.invalidate("alice");
+
+        Assertions.assertTrue(cache.get("alice-1").isEmpty());
+        Assertions.assertTrue(cache.get("bob-1").isPresent());
+    }
+
+    @Test
+    public void tokensCachedAgainAfterInvalidationAreKept() {
+        put("alice-1", authentication("alice"));
+        cache.invalidate("alice");
+
+        put("alice-1", authentication("alice"));
+        Assertions.assertTrue(cache.get("alice-1").isPresent());
+
+        cache.invalidate("alice");
+        Assertions.assertTrue(cache.get("alice-1").isEmpty());
+    }
+
+    @Test
+    public void replacedAndEvictedEntriesStayConsistent() {
+        put("alice-1", authentication("alice"));
+        put("alice-1", authentication("alice"));
+        cache.invalidate("alice");
+        Assertions.assertTrue(cache.get("alice-1").isEmpty());
+
+        // the size bound evicts alice's oldest token, the remaining ones are still invalidated together
+        put("alice-2", authentication("alice"));
+        put("alice-3", authentication("alice"));
+        put("alice-4", authentication("alice"));
+        cache.invalidate("alice");
+        Assertions.assertTrue(cache.get("alice-2").isEmpty());
+        Assertions.assertTrue(cache.get("alice-3").isEmpty());
+        Assertions.assertTrue(cache.get("alice-4").isEmpty());
+    }
+
+    @Test
+    public void tokensValidatedBeforeAnInvalidationAreNotCached() {
+        final long stamp = cache.stamp();
+        cache.invalidate("alice");
+
+        cache.put("alice-1", authentication("alice"), stamp);
+        Assertions.assertTrue(cache.get("alice-1").isEmpty());
+    }
+
+    @Test
+    public void invalidateNeverMissesAConcurrentPut() throws InterruptedException {
+        final TokenCacheConfigurationProperties config = new TokenCacheConfigurationProperties();
+        config.setEnabled(true);
+        config.setMaximumSize(100_000);
+        config.setMaximumTtl(Duration.ofMinutes(5));
+        final TokenAuthenticationCache cache = new TokenAuthenticationCache(config, new SimpleMeterRegistry());
+
+        final int threads = 4;
+        final int tokens = 5_000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int offset = t * tokens;
+            final Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < tokens; i++) {
+                    cache.put("alice-" + (offset + i), authentication("alice"), cache.stamp());
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        final Thread invalidator = new Thread(() -> {
+            while (writing.get()) {
+                cache.invalidate("alice");
+            }
+        });
+        invalidator.start();
+
+        start.countDown();
+        for (final Thread writer : writers) {
+            writer.join();
+        }
+        writing.set(false);
+        invalidator.join();
+
+        // every cached token is still reachable through the username index
+        cache.invalidate("alice");
+        for (int i = 0; i < threads * tokens; i++) {
+            Assertions.assertTrue(cache.get("alice-" + i).isEmpty(), "alice-" + i);
+        }
+    }
+
+}
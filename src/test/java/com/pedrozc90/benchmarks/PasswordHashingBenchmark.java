@@ -0,0 +1,43 @@
+package com.pedrozc90.benchmarks;
+
+import com.pedrozc90.core.authentication.password.Pbkdf2PasswordHasher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single password verification for each candidate iteration count,
+ * pick the highest one whose sample percentiles still fit the login latency budget.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({ "100000", "210000", "310000", "600000" })
+    private int iterations;
+
+    private Pbkdf2PasswordHasher hasher;
+    private String encoded;
+
+    @Setup
+    public void setup() {
+        hasher = new Pbkdf2PasswordHasher(iterations, 16, 32);
+        encoded = hasher.hash("correct horse battery staple");
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return hasher.matches("correct horse battery staple", encoded);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean verifyContended() {
+        return hasher.matches("correct horse battery staple", encoded);
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.pedrozc90.benchmarks;
+
+import com.pedrozc90.core.querydsl.JPAProvider;
+import com.pedrozc90.core.querydsl.JPAQuery;
+import com.querydsl.jpa.JPQLTemplates;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building a {@link JPAQuery}, which every repository call pays, with the provider templates
+ * detected on each call (previous behaviour) vs memoized per {@link EntityManagerFactory}.
+ * <p>
+ * The EntityManager is a stand-in for a Hibernate session: {@code unwrap} answers like {@code SessionImpl},
+ * throwing for classes it does not implement, so no database is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryConstructionBenchmark {
+
+    private EntityManager em;
+
+    @Setup
+    public void setup() {
+        final EntityManagerFactory emf = (EntityManagerFactory) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] { EntityManagerFactory.class },
+            (proxy, method, args) -> identity(proxy, method.getName(), args));
+
+        em = (EntityManager) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] { Session.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "unwrap":
+                        final Class<?> type = (Class<?>) args[0];
+                        if (type.isInstance(proxy)) return proxy;
+                        throw new PersistenceException("Hibernate cannot unwrap " + type);
+                    case "getDelegate":
+                        return proxy;
+                    case "getEntityManagerFactory":
+                        return emf;
+                    default:
+                        return identity(proxy, method.getName(), args);
+                }
+            });
+    }
+
+    private static Object identity(final Object proxy, final String method, final Object[] args) {
+        switch (method) {
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "proxy@" + Integer.toHexString(System.identityHashCode(proxy));
+            default:
+                throw new UnsupportedOperationException(method);
+        }
+    }
+
+    @Benchmark
+    public JPQLTemplates templatesDetected() {
+        return JPAProvider.detectTemplates(em);
+    }
+
+    @Benchmark
+    public JPQLTemplates templatesMemoized() {
+        return JPAProvider.getTemplates(em);
+    }
+
+    @Benchmark
+    public JPAQuery<?> queryDetected() {
+        return new JPAQuery<Void>(em, JPAProvider.detectTemplates(em));
+    }
+
+    @Benchmark
+    public JPAQuery<?> queryMemoized() {
+        return new JPAQuery<Void>(em);
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.pedrozc90.benchmarks;
+
+import com.pedrozc90.core.authentication.JwtClaimsSetGenerator;
+import com.pedrozc90.core.authentication.JwtTokenMinter;
+import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.token.config.TokenConfigurationProperties;
+import io.micronaut.security.token.jwt.generator.JwtTokenGenerator;
+import io.micronaut.security.token.jwt.generator.claims.JWTClaimsSetGenerator;
+import io.micronaut.security.token.jwt.generator.claims.JwtIdGenerator;
+import io.micronaut.security.token.jwt.signature.secret.SecretSignature;
+import io.micronaut.security.token.jwt.signature.secret.SecretSignatureConfiguration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the stock micronaut token generator against {@link JwtTokenMinter} for
+ * the login (access token from an authentication) and refresh (access token from old claims) paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenMintingBenchmark {
+
+    private static final String SECRET = "SiDPL3UYMIxD7w9TzMTquiaf3yuiRR4R6qHk7hqvdiqcvonXiVuBuus499PjQaD0";
+    private static final int EXPIRATION = 86400;
+
+    private Authentication authentication;
+
+    private JwtTokenGenerator defaultGenerator;
+    private JWTClaimsSetGenerator defaultClaimsGenerator;
+
+    private JwtTokenMinter minter;
+    private JwtClaimsSetGenerator claimsGenerator;
+
+    private Map<String, Object> oldClaims;
+
+    @Setup
+    public void setup() throws Exception {
+        final SecretSignatureConfiguration secretConfiguration = new SecretSignatureConfiguration("generator");
+        secretConfiguration.setSecret(SECRET);
+        final SecretSignature signature = new SecretSignature(secretConfiguration);
+
+        final TokenConfigurationProperties tokenConfiguration = new TokenConfigurationProperties();
+        final JwtIdGenerator jwtIdGenerator = () -> UUID.randomUUID().toString();
+
+        defaultClaimsGenerator = new JWTClaimsSetGenerator(tokenConfiguration, jwtIdGenerator, null, null);
+        defaultGenerator = new JwtTokenGenerator(signature, null, defaultClaimsGenerator);
+
+        claimsGenerator = new JwtClaimsSetGenerator(tokenConfiguration, jwtIdGenerator, null, null);
+        minter = new JwtTokenMinter(signature, null, secretConfiguration, claimsGenerator);
+
+        authentication = Authentication.build("master", List.of("MASTER"), Map.of("user_id", 1L));
+        oldClaims = claimsGenerator.generateClaims(authentication, EXPIRATION);
+    }
+
+    @Benchmark
+    public String loginDefault() {
+        return defaultGenerator.generateToken(authentication, EXPIRATION).orElseThrow();
+    }
+
+    @Benchmark
+    public String loginMinter() {
+        return minter.generateToken(authentication, EXPIRATION).orElseThrow();
+    }
+
+    @Benchmark
+    public String refreshDefault() {
+        return defaultGenerator.generateToken(defaultClaimsGenerator.generateClaimsSet(oldClaims, EXPIRATION)).orElseThrow();
+    }
+
+    @Benchmark
+    public String refreshMinter() {
+        return minter.generateToken(claimsGenerator.generateClaimsSet(oldClaims, EXPIRATION)).orElseThrow();
+    }
+
+}
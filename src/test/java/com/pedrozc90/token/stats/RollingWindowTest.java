@@ -0,0 +1,126 @@
+package com.pedrozc90.token.stats;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class RollingWindowTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(60);
+
+    // 6 buckets of 10 seconds each
+    private static final long BUCKET = 10_000L;
+
+    @Test
+    public void counterSumsEveryBucketInsideTheWindow() {
+        final RollingCounter counter = new RollingCounter(WINDOW, 6, 2);
+        counter.increment(0, 0);
+        counter.increment(0, BUCKET);
+        counter.increment(1, 5 * BUCKET);
+
+        Assertions.assertArrayEquals(new long[]{ 2, 1 }, counter.sum(5 * BUCKET));
+    }
+
+    @Test
+    public void counterDropsBucketsThatLeftTheWindow() {
+        final RollingCounter counter = new RollingCounter(WINDOW, 6, 1);
+        counter.increment(0, 0);
+        counter.increment(0, BUCKET);
+
+        // bucket 0 is out of the window, bucket 1 is still in
+        Assertions.assertArrayEquals(new long[]{ 1 }, counter.sum(6 * BUCKET));
+        Assertions.assertArrayEquals(new long[]{ 0 }, counter.sum(7 * BUCKET));
+    }
+
+    @Test
+    public void counterRecyclesASlotWhenTheRingWrapsAround() {
+        final RollingCounter counter = new RollingCounter(WINDOW, 6, 1);
+        counter.increment(0, 0);
+        counter.increment(0, 1);
+
+        // same ring slot, next lap: the old counts must not leak into the new bucket
+        counter.increment(0, 6 * BUCKET);
+        Assertions.assertArrayEquals(new long[]{ 1 }, counter.sum(6 * BUCKET));
+    }
+
+    @Test
+    public void topKOrdersByFrequency() {
+        final RollingTopK top = new RollingTopK(WINDOW, 6, 16);
+        increment(top, "a", 1, 0);
+        increment(top, "b", 3, 0);
+        increment(top, "c", 2, BUCKET);
+
+        final List<Map.Entry<String, Long>> entries = top.top(2, WINDOW, BUCKET);
+        Assertions.assertEquals(2, entries.size());
+        Assertions.assertEquals(Map.entry("b", 3L), entries.get(0));
+        Assertions.assertEquals(Map.entry("c", 2L), entries.get(1));
+    }
+
+    @Test
+    public void topKOnlyMergesTheRequestedWindow() {
+        final RollingTopK top = new RollingTopK(WINDOW, 6, 16);
+        increment(top, "old", 5, 0);
+        increment(top, "new", 1, 3 * BUCKET);
+
+        Assertions.assertEquals(List.of(Map.entry("old", 5L), Map.entry("new", 1L)), top.top(10, WINDOW, 3 * BUCKET));
+        Assertions.assertEquals(List.of(Map.entry("new", 1L)), top.top(10, Duration.ofSeconds(20), 3 * BUCKET));
+
+        // once the ring wraps around, the first bucket is recycled
+        increment(top, "newer", 1, 6 * BUCKET);
+        final Map<String, Long> counts = top.top(10, WINDOW, 6 * BUCKET).stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        Assertions.assertEquals(Map.of("new", 1L, "newer", 1L), counts);
+    }
+
+    @Test
+    public void topKAdmitsHeavyHittersAfterTheBucketIsFull() {
+        final RollingTopK top = new RollingTopK(WINDOW, 6, 4);
+
+        // fill the bucket with noise before the real attack starts
+        for (int i = 0; i < 100; i++) {
+            top.increment("noise-" + i, 0);
+        }
+        increment(top, "victim", 10, 0);
+
+        final List<Map.Entry<String, Long>> entries = top.top(1, WINDOW, 0);
+        Assertions.assertEquals("victim", entries.get(0).getKey());
+        // the count is overestimated by at most the count of the evicted key
+        Assertions.assertTrue(entries.get(0).getValue() >= 10);
+        Assertions.assertTrue(top.top(10, WINDOW, 0).size() <= 4);
+    }
+
+    @Test
+    public void topKMergesCountsFromConcurrentWriters() throws InterruptedException {
+        final RollingTopK top = new RollingTopK(WINDOW, 6, 1024);
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final int id = t;
+            final Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    top.increment("hot", 0);
+                    top.increment("noise-" + id + "-" + (i % 8), 0);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        // every increment of the hot key is counted, whichever stripe it landed in
+        Assertions.assertEquals(Map.entry("hot", 4_000L), top.top(1, WINDOW, 0).get(0));
+    }
+
+    private static void increment(final RollingTopK top, final String key, final int times, final long now) {
+        for (int i = 0; i < times; i++) {
+            top.increment(key, now);
+        }
+    }
+
+}
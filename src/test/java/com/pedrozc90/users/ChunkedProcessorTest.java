@@ -0,0 +1,185 @@
+package com.pedrozc90.users;
+
+import com.pedrozc90.core.data.ChunkProgress;
+import com.pedrozc90.core.data.ChunkTask;
+import com.pedrozc90.core.data.ChunkedProcessor;
+import com.pedrozc90.users.models.User;
+import com.pedrozc90.users.repo.UserRepository;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@MicronautTest(transactional = false)
+@Property(name = "application.chunks.threads", value = "1")
+@Property(name = "application.chunks.chunk-size", value = "2")
+public class ChunkedProcessorTest {
+
+    private static final List<String> USERNAMES = List.of("chunk-a", "chunk-b", "chunk-c", "chunk-d", "chunk-e");
+
+    @Inject
+    private ChunkedProcessor chunkedProcessor;
+
+    @Inject
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void setup() {
+        cleanup();
+        for (final String username : USERNAMES) {
+            final User user = new User();
+            user.setUsername(username);
+            user.setEmail(username.toUpperCase() + "@Email.com");
+            user.setPassword("x");
+            userRepository.save(user);
+        }
+    }
+
+    @AfterEach
+    public void cleanup() {
+        for (final String username : USERNAMES) {
+            userRepository.findByUsername(username).ifPresent((v) -> userRepository.remove(v));
+        }
+    }
+
+    // only the rows created here are modified, the rest of the table is just read
+    private static List<User> owned(final List<User> users) {
+        return users.stream().filter((u) -> USERNAMES.contains(u.getUsername())).collect(Collectors.toList());
+    }
+
+    private List<Long> ids() {
+        return userRepository.fetch(1, 1_000, null).getList().stream()
+            .map(User::getId)
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void splitsTheTableIntoIdRanges() {
+        final List<Long> ids = ids();
+        final long min = ids.get(0);
+        final long max = ids.get(ids.size() - 1);
+
+        final List<List<Long>> chunks = Collections.synchronizedList(new ArrayList<>());
+        final ChunkProgress progress = chunkedProcessor.process(userRepository,
+            (em, users) -> chunks.add(users.stream().map(User::getId).collect(Collectors.toList())));
+
+        Assertions.assertTrue(progress.isDone());
+        Assertions.assertEquals((int) ((max - min + 2) / 2), progress.getTotalChunks());
+        Assertions.assertEquals(ids.size(), progress.getProcessedRows());
+        Assertions.assertEquals(max + 1, progress.getResumeFrom());
+
+        // every chunk spans at most two ids and every row is seen exactly once, in order within its chunk
+        final List<Long> seen = new ArrayList<>();
+        for (final List<Long> chunk : chunks) {
+            Assertions.assertTrue(chunk.get(chunk.size() - 1) - chunk.get(0) < 2, chunk.toString());
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(chunk)), chunk);
+            seen.addAll(chunk);
+        }
+        Collections.sort(seen);
+        Assertions.assertEquals(ids, seen);
+    }
+
+    @Test
+    public void reportsProgressAfterEveryChunk() {
+        final List<ChunkProgress> reports = Collections.synchronizedList(new ArrayList<>());
+        final ChunkProgress progress = chunkedProcessor.process(userRepository, (em, users) -> { }, null, reports::add);
+
+        Assertions.assertEquals(progress.getTotalChunks(), reports.size());
+        for (int i = 0; i < reports.size(); i++) {
+            Assertions.assertEquals(i + 1, reports.get(i).getCompletedChunks());
+            Assertions.assertNull(reports.get(i).getError());
+        }
+        Assertions.assertTrue(reports.get(reports.size() - 1).isDone());
+    }
+
+    @Test
+    public void resumesFromTheFailedChunk() {
+        final User failing = userRepository.findByUsername("chunk-c").orElseThrow();
+        final LowerCaseEmails task = new LowerCaseEmails(failing.getId());
+
+        final ChunkProgress failed = chunkedProcessor.process(userRepository, task, null, null);
+
+        Assertions.assertFalse(failed.isDone());
+        Assertions.assertEquals("chunk failed", failed.getError());
+        Assertions.assertTrue(failed.getResumeFrom() <= failing.getId());
+        Assertions.assertTrue(failed.getResumeFrom() > failing.getId() - 2);
+        // the failed chunk was rolled back
+        Assertions.assertEquals("CHUNK-C@Email.com", userRepository.findByUsername("chunk-c").orElseThrow().getEmail());
+
+        task.failOn = null;
+        final ChunkProgress resumed = chunkedProcessor.process(userRepository, task, failed.getResumeFrom(), null);
+
+        Assertions.assertTrue(resumed.isDone());
+        Assertions.assertTrue(task.processed.containsAll(ids()));
+        for (final String username : USERNAMES) {
+            Assertions.assertEquals(username + "@email.com", userRepository.findByUsername(username).orElseThrow().getEmail());
+        }
+    }
+
+    @Test
+    @Property(name = "application.chunks.page-size", value = "1")
+    public void readsEachChunkInPages() {
+        final List<Integer> pages = Collections.synchronizedList(new ArrayList<>());
+        final LowerCaseEmails task = new LowerCaseEmails(null) {
+            private User previous;
+
+            @Override
+            public void process(final EntityManager em, final List<User> users) {
+                // the previous page was flushed and cleared before this one was loaded
+                Assertions.assertTrue(previous == null || !em.contains(previous));
+                pages.add(users.size());
+                super.process(em, users);
+                previous = users.get(users.size() - 1);
+            }
+        };
+
+        final ChunkProgress progress = chunkedProcessor.process(userRepository, task);
+
+        Assertions.assertTrue(progress.isDone());
+        Assertions.assertTrue(pages.stream().allMatch((size) -> size == 1), pages.toString());
+        Assertions.assertEquals(ids().size(), pages.size());
+        Assertions.assertEquals(ids().size(), progress.getProcessedRows());
+        // changes made to earlier pages were flushed, not dropped by the clear
+        for (final String username : USERNAMES) {
+            Assertions.assertEquals(username + "@email.com", userRepository.findByUsername(username).orElseThrow().getEmail());
+        }
+    }
+
+    /**
+     * Test-only task lower-casing the emails of the rows created by this test, failing on {@code failOn}.
+     */
+    private static class LowerCaseEmails implements ChunkTask<User> {
+
+        private final Set<Long> processed = Collections.synchronizedSet(new TreeSet<>());
+        private volatile Long failOn;
+
+        private LowerCaseEmails(final Long failOn) {
+            this.failOn = failOn;
+        }
+
+        @Override
+        public void process(final EntityManager em, final List<User> users) {
+            for (final User user : owned(users)) {
+                user.setEmail(user.getEmail().toLowerCase());
+                if (user.getId().equals(failOn)) {
+                    throw new IllegalStateException("chunk failed");
+                }
+            }
+            users.forEach((u) -> processed.add(u.getId()));
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.pedrozc90.users;
 
 import com.pedrozc90.core.models.Page;
+import com.pedrozc90.core.utils.CursorUtils;
 import com.pedrozc90.users.models.Profile;
 import com.pedrozc90.users.models.User;
 import com.pedrozc90.users.models.UserData;
@@ -22,12 +23,17 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @MicronautTest
 public class UserControllerTest {
 
+    private static final List<String> PAGED_USERNAMES = List.of("paged-a", "paged-b", "paged-c");
+
     private String accessToken;
 
     private BlockingHttpClient blockingClient;
@@ -58,6 +64,9 @@ public class UserControllerTest {
             userRepository.findByEmail("john@email.com").ifPresent((v) -> userRepository.remove(v));
             userRepository.findByEmail("john.micronaut@email.com").ifPresent((v) -> userRepository.remove(v));
             userRepository.findByEmail("mary@email.com").ifPresent((v) -> userRepository.remove(v));
+            for (final String username : PAGED_USERNAMES) {
+                userRepository.findByUsername(username).ifPresent((v) -> userRepository.remove(v));
+            }
         }
     }
 
@@ -79,6 +88,151 @@ public class UserControllerTest {
         Assertions.assertTrue(page.getList().size() <= 15);
     }
 
+    @Test
+    public void testFetchUsersWithCursor() {
+        final List<String> usernames = new ArrayList<>();
+        String cursor = null;
+        do {
+            final String uri = (cursor == null) ? "/users?mode=cursor&rpp=1" : "/users?rpp=1&cursor=" + cursor;
+            final HttpRequest<?> request = HttpRequest.GET(uri).bearerAuth(accessToken);
+            final Page<User> page = blockingClient.retrieve(request, Argument.of(Page.class, User.class));
+            Assertions.assertNotNull(page);
+            Assertions.assertTrue(page.getList().size() <= 1);
+            Assertions.assertEquals(page.isNext(), page.getCursor() != null);
+            page.getList().forEach((u) -> usernames.add(u.getUsername()));
+            cursor = page.getCursor();
+        } while (cursor != null);
+
+        final List<String> sorted = new ArrayList<>(usernames);
+        sorted.sort(String::compareTo);
+        Assertions.assertFalse(usernames.isEmpty());
+        Assertions.assertEquals(sorted, usernames);
+    }
+
+    private List<Long> createPagedUsers() {
+        final List<Long> ids = new ArrayList<>();
+        for (final String username : PAGED_USERNAMES) {
+            final UserRegistration cmd = UserRegistration.builder()
+                .email(username + "@email.com")
+                .username(username)
+                .password("1")
+                .passwordConfirm("1")
+                .build();
+            final HttpRequest<?> request = HttpRequest.POST("/users", cmd).bearerAuth(accessToken);
+            ids.add(blockingClient.retrieve(request, User.class).getId());
+        }
+        return ids;
+    }
+
+    private void removeUsers(final List<Long> ids) {
+        for (final Long id : ids) {
+            blockingClient.exchange(HttpRequest.DELETE("/users/" + id).bearerAuth(accessToken));
+        }
+    }
+
+    private static List<String> usernames(final Page<User> page) {
+        return page.getList().stream().map(User::getUsername).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testKeysetPagesSeekPastTheCursor() {
+        final List<Long> ids = createPagedUsers();
+        try {
+            final Page<User> first = fetchPage("mode=cursor&rpp=2&q=paged-");
+            Assertions.assertEquals(List.of("paged-a", "paged-b"), usernames(first));
+            Assertions.assertTrue(first.isNext());
+            Assertions.assertFalse(first.isPrev());
+            Assertions.assertEquals(-1, first.getTotal());
+
+            // the cursor is the (username, id) of the last row of the page
+            Assertions.assertArrayEquals(new String[]{ "paged-b", String.valueOf(ids.get(1)) }, CursorUtils.decode(first.getCursor(), 2));
+
+            final Page<User> second = fetchPage("rpp=2&q=paged-&cursor=" + first.getCursor());
+            Assertions.assertEquals(List.of("paged-c"), usernames(second));
+            Assertions.assertFalse(second.isNext());
+            Assertions.assertTrue(second.isPrev());
+            Assertions.assertNull(second.getCursor());
+        } finally {
+            removeUsers(ids);
+        }
+    }
+
+    @Test
+    public void testOffsetPagesReportNextAndPrev() {
+        final List<Long> ids = createPagedUsers();
+        try {
+            final Page<User> first = fetchPage("page=1&rpp=2&q=paged-");
+            Assertions.assertEquals(2, first.getList().size());
+            Assertions.assertTrue(first.isNext());
+            Assertions.assertFalse(first.isPrev());
+            Assertions.assertEquals(3, first.getTotal());
+
+            final Page<User> second = fetchPage("page=2&rpp=2&q=paged-");
+            Assertions.assertEquals(1, second.getList().size());
+            Assertions.assertFalse(second.isNext());
+            Assertions.assertTrue(second.isPrev());
+        } finally {
+            removeUsers(ids);
+        }
+    }
+
+    @Test
+    public void testCursorRoundTrip() {
+        final String cursor = CursorUtils.encode("user name/é+", 42L);
+        Assertions.assertFalse(cursor.contains("+"));
+        Assertions.assertFalse(cursor.contains("/"));
+        Assertions.assertFalse(cursor.contains("="));
+        Assertions.assertArrayEquals(new String[]{ "user name/é+", "42" }, CursorUtils.decode(cursor, 2));
+    }
+
+    @Test
+    public void supplyAnInvalidCursorTriggersBadRequest() {
+        final String wrongSize = Base64.getUrlEncoder().withoutPadding().encodeToString("paged-a".getBytes(StandardCharsets.UTF_8));
+        for (final String cursor : List.of("not*base64", wrongSize, CursorUtils.encode("paged-a", "x"))) {
+            final HttpClientResponseException e = Assertions.assertThrows(HttpClientResponseException.class, () -> {
+                final HttpRequest<?> request = HttpRequest.GET("/users?rpp=2&cursor=" + cursor).bearerAuth(accessToken);
+                blockingClient.exchange(request);
+            }, cursor);
+            Assertions.assertEquals(HttpStatus.BAD_REQUEST, e.getStatus(), cursor);
+        }
+    }
+
+    private Page<User> fetchPage(final String query) {
+        final HttpRequest<?> request = HttpRequest.GET("/users?" + query).bearerAuth(accessToken);
+        return blockingClient.retrieve(request, Argument.of(Page.class, User.class));
+    }
+
+    @Test
+    public void testFetchUsersWithCountModes() {
+        final Page<User> exact = fetchPage("rpp=1&count=exact");
+        Assertions.assertEquals(userRepository.count(), exact.getTotal());
+
+        // unfiltered: planner statistics, which may lag behind until the table is analyzed
+        final Page<User> estimate = fetchPage("rpp=1&count=estimate");
+        Assertions.assertTrue(estimate.getTotal() >= 0);
+        Assertions.assertEquals(exact.getList().size(), estimate.getList().size());
+
+        // filtered: the exact count, cached for a short while
+        final Page<User> filtered = fetchPage("rpp=1&q=master&count=estimate");
+        Assertions.assertEquals(fetchPage("rpp=1&q=master&count=exact").getTotal(), filtered.getTotal());
+
+        final Page<User> none = fetchPage("rpp=1&count=none");
+        Assertions.assertEquals(-1, none.getTotal());
+        Assertions.assertEquals(exact.getList().size(), none.getList().size());
+        Assertions.assertEquals(exact.getTotal() > 1, none.isNext());
+    }
+
+    @Test
+    public void supplyAnUnknownModeTriggersBadRequest() {
+        for (final String uri : List.of("/users?count=foo", "/users?search=foo", "/users?mode=cursor&search=foo", "/users/export?format=xml")) {
+            final HttpClientResponseException e = Assertions.assertThrows(HttpClientResponseException.class, () -> {
+                final HttpRequest<?> request = HttpRequest.GET(uri).bearerAuth(accessToken);
+                blockingClient.exchange(request);
+            }, uri);
+            Assertions.assertEquals(HttpStatus.BAD_REQUEST, e.getStatus(), uri);
+        }
+    }
+
     @Test
     public void supplyAnInvalidOrderTriggersValidationFailure() {
         final HttpClientResponseException e = Assertions.assertThrows(HttpClientResponseException.class, () -> {
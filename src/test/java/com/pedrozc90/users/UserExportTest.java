@@ -0,0 +1,159 @@
+package com.pedrozc90.users;
+
+import com.pedrozc90.core.exceptions.ApplicationException;
+import com.pedrozc90.core.models.ExportFormat;
+import com.pedrozc90.users.models.User;
+import com.pedrozc90.users.repo.UserExporter;
+import com.pedrozc90.users.repo.UserRepository;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+@MicronautTest(transactional = false)
+@Property(name = "application.export.max-concurrent", value = "1")
+@Property(name = "application.export.chunk-size", value = "16")
+@Property(name = "application.export.timeout", value = "500ms")
+public class UserExportTest {
+
+    private String accessToken;
+
+    private BlockingHttpClient blockingClient;
+
+    @Inject
+    @Client("/")
+    private HttpClient client;
+
+    @Inject
+    private UserRepository userRepository;
+
+    @Inject
+    private UserExporter userExporter;
+
+    @BeforeEach
+    public void setup() {
+        blockingClient = client.toBlocking();
+
+        final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials("master", "1");
+        final HttpResponse<BearerAccessRefreshToken> response = blockingClient.exchange(HttpRequest.POST("/login", credentials), BearerAccessRefreshToken.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatus());
+        accessToken = response.body().getAccessToken();
+
+        userRepository.findByUsername("=formula").ifPresent((v) -> userRepository.remove(v));
+    }
+
+    private String export(final String format) {
+        final HttpRequest<?> request = HttpRequest.GET("/users/export?format=" + format).bearerAuth(accessToken);
+        return blockingClient.retrieve(request, String.class);
+    }
+
+    @Test
+    public void csvExportNeutralizesFormulas() {
+        final User user = new User();
+        user.setUsername("=formula");
+        user.setEmail("+formula@email.com");
+        user.setPassword("x");
+        userRepository.save(user);
+
+        final String csv = export("csv");
+        Assertions.assertTrue(csv.startsWith("id,username,email,profile,active,inserted_at,updated_at\n"));
+        Assertions.assertTrue(csv.contains("," + "'=formula,'+formula@email.com,"), csv);
+        Assertions.assertFalse(csv.contains(",=formula"));
+
+        // ndjson is not interpreted by spreadsheets and keeps the raw values
+        Assertions.assertTrue(export("ndjson").contains("\"username\":\"=formula\""));
+    }
+
+    @Test
+    public void concurrentExportsAreCapped() throws InterruptedException {
+        final CountDownLatch first = new CountDownLatch(1);
+        final HoldingSubscriber holder = new HoldingSubscriber(first);
+        userExporter.export(ExportFormat.CSV).subscribe(holder);
+        try {
+            Assertions.assertTrue(first.await(10, TimeUnit.SECONDS));
+
+            Assertions.assertThrows(ApplicationException.class, () -> userExporter.export(ExportFormat.CSV).blockFirst());
+            final HttpClientResponseException e = Assertions.assertThrows(HttpClientResponseException.class, () -> export("csv"));
+            Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        } finally {
+            holder.cancel();
+        }
+
+        // the permit is released once the running export ends
+        Assertions.assertNotNull(export("csv"));
+    }
+
+    @Test
+    public void unsubscribedExportsHoldNoPermit() {
+        // only subscribing takes a permit, so these never block the export below
+        userExporter.export(ExportFormat.CSV);
+        userExporter.export(ExportFormat.NDJSON);
+
+        Assertions.assertNotNull(export("csv"));
+    }
+
+    @Test
+    public void stalledExportTimesOut() throws InterruptedException {
+        final CountDownLatch first = new CountDownLatch(1);
+        final HoldingSubscriber holder = new HoldingSubscriber(first);
+        userExporter.export(ExportFormat.CSV).subscribe(holder);
+        Assertions.assertTrue(first.await(10, TimeUnit.SECONDS));
+
+        // the subscriber never asks for a second chunk, the deadline aborts the export
+        Assertions.assertTrue(holder.terminated.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(holder.error.get() instanceof TimeoutException);
+        Assertions.assertNotNull(export("csv"));
+    }
+
+    // requests a single chunk and then stalls, like a client that stopped reading
+    private static final class HoldingSubscriber extends BaseSubscriber<byte[]> {
+
+        private final CountDownLatch first;
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private HoldingSubscriber(final CountDownLatch first) {
+            this.first = first;
+        }
+
+        @Override
+        protected void hookOnSubscribe(final Subscription subscription) {
+            subscription.request(1);
+        }
+
+        @Override
+        protected void hookOnNext(final byte[] chunk) {
+            first.countDown();
+        }
+
+        @Override
+        protected void hookOnError(final Throwable throwable) {
+            error.set(throwable);
+        }
+
+        @Override
+        protected void hookFinally(final reactor.core.publisher.SignalType type) {
+            terminated.countDown();
+        }
+
+    }
+
+}
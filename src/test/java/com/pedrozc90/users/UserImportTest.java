@@ -0,0 +1,180 @@
+package com.pedrozc90.users;
+
+import com.pedrozc90.core.concurrent.BoundedExecutorFactory;
+import com.pedrozc90.core.models.ExportFormat;
+import com.pedrozc90.users.models.UserImportResult;
+import com.pedrozc90.users.models.UserImportRow;
+import com.pedrozc90.users.models.UserImportRow.Status;
+import com.pedrozc90.users.repo.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@MicronautTest
+@Property(name = "micronaut.server.max-request-size", value = "4KB")
+@Property(name = "application.import.max-request-size", value = "1MB")
+public class UserImportTest {
+
+    private String accessToken;
+
+    private BlockingHttpClient blockingClient;
+
+    @Inject
+    @Client("/")
+    private HttpClient client;
+
+    @Inject
+    private UserRepository userRepository;
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        blockingClient = client.toBlocking();
+
+        final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials("master", "1");
+        final HttpResponse<BearerAccessRefreshToken> response = blockingClient.exchange(HttpRequest.POST("/login", credentials), BearerAccessRefreshToken.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatus());
+        accessToken = response.body().getAccessToken();
+
+        for (final String username : List.of("importa", "importb", "importc", "importe")) {
+            userRepository.findByUsername(username).ifPresent((v) -> userRepository.remove(v));
+        }
+    }
+
+    private UserImportResult importUsers(final String body, final String contentType) {
+        final HttpRequest<?> request = HttpRequest.POST("/users/import", body)
+            .contentType(contentType)
+            .bearerAuth(accessToken);
+        final HttpResponse<UserImportResult> response = blockingClient.exchange(request, UserImportResult.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatus());
+        return response.body();
+    }
+
+    @Test
+    public void csvQuotedFieldsAreParsed() {
+        final String body = "username,email,password\r\n" +
+            "importa,\"importa@email.com\",\"p,\"\"1\"\"\"\r\n" +
+            "importb,importb@email.com,\"two\nlines\"\r\n";
+
+        final UserImportResult result = importUsers(body, ExportFormat.CSV_MEDIA_TYPE);
+        Assertions.assertEquals(2, result.getTotal());
+        Assertions.assertEquals(Status.CREATED, result.getRows().get(0).getStatus());
+        Assertions.assertEquals("importa", result.getRows().get(0).getUsername());
+        Assertions.assertEquals(Status.CREATED, result.getRows().get(1).getStatus());
+        Assertions.assertEquals("importb", result.getRows().get(1).getUsername());
+
+        // commas, doubled quotes and line breaks inside quotes belong to the password
+        for (final UsernamePasswordCredentials credentials : List.of(
+            new UsernamePasswordCredentials("importa", "p,\"1\""),
+            new UsernamePasswordCredentials("importb", "two\nlines"))) {
+            final HttpResponse<BearerAccessRefreshToken> login = blockingClient.exchange(HttpRequest.POST("/login", credentials), BearerAccessRefreshToken.class);
+            Assertions.assertEquals(HttpStatus.OK, login.getStatus());
+        }
+    }
+
+    @Test
+    public void duplicateAndTakenRowsAreRejected() {
+        final String body = String.join("\n",
+            "{\"email\":\"importb@email.com\",\"username\":\"importb\",\"password\":\"1\",\"password_confirm\":\"1\"}",
+            "{\"email\":\"importb@email.com\",\"username\":\"importc\",\"password\":\"1\",\"password_confirm\":\"1\"}",
+            "{\"email\":\"importc@email.com\",\"username\":\"IMPORTB\",\"password\":\"1\",\"password_confirm\":\"1\"}",
+            "{\"email\":\"pedrozc90+master@gmail.com\",\"username\":\"importc\",\"password\":\"1\",\"password_confirm\":\"1\"}",
+            "{\"email\":\"importc@email.com\",\"username\":\"master\",\"password\":\"1\",\"password_confirm\":\"1\"}");
+
+        final UserImportResult result = importUsers(body, ExportFormat.NDJSON_MEDIA_TYPE);
+        final List<Status> statuses = result.getRows().stream().map(UserImportRow::getStatus).collect(Collectors.toList());
+        Assertions.assertEquals(List.of(Status.CREATED, Status.DUPLICATE, Status.DUPLICATE, Status.DUPLICATE, Status.DUPLICATE), statuses);
+        Assertions.assertEquals(1, result.getCreated());
+        Assertions.assertEquals(4, result.getFailed());
+        Assertions.assertTrue(result.getRows().get(1).getMessage().contains("repeated"));
+        Assertions.assertTrue(result.getRows().get(3).getMessage().contains("already in use"));
+    }
+
+    // the pools register their meters when first injected
+    private long executions(final String pool) {
+        final Timer timer = meterRegistry.find("executor.execution").tag("name", pool).timer();
+        return (timer != null) ? timer.count() : 0;
+    }
+
+    @Test
+    public void passwordsAreHashedOnTheImportPool() {
+        final long hashing = executions(BoundedExecutorFactory.HASHING);
+        final long imports = executions(BoundedExecutorFactory.IMPORT);
+
+        final String body = String.join("\n",
+            "{\"email\":\"importb@email.com\",\"username\":\"importb\",\"password\":\"1\",\"password_confirm\":\"1\"}",
+            "{\"email\":\"importc@email.com\",\"username\":\"importc\",\"password\":\"1\",\"password_confirm\":\"1\"}");
+        Assertions.assertEquals(2, importUsers(body, ExportFormat.NDJSON_MEDIA_TYPE).getCreated());
+
+        // logins keep the whole hashing pool
+        Assertions.assertEquals(imports + 2, executions(BoundedExecutorFactory.IMPORT));
+        Assertions.assertEquals(hashing, executions(BoundedExecutorFactory.HASHING));
+    }
+
+    @Test
+    public void everyRowIsReported() {
+        final String body = String.join("\n",
+            "{\"email\":\"importc@email.com\",\"username\":\"importc\",\"password\":\"1\",\"password_confirm\":\"1\"}",
+            "",
+            "not json",
+            "{\"email\":\"not an email\",\"username\":\"importd\",\"password\":\"1\",\"password_confirm\":\"1\"}",
+            "{\"email\":\"importe@email.com\",\"username\":\"importe\",\"password\":\"1\",\"password_confirm\":\"2\"}");
+
+        final UserImportResult result = importUsers(body, ExportFormat.NDJSON_MEDIA_TYPE);
+        Assertions.assertEquals(4, result.getTotal());
+        Assertions.assertEquals(List.of(1, 3, 4, 5), result.getRows().stream().map(UserImportRow::getLine).collect(Collectors.toList()));
+
+        final UserImportRow created = result.getRows().get(0);
+        Assertions.assertEquals(Status.CREATED, created.getStatus());
+        Assertions.assertNotNull(created.getId());
+        Assertions.assertEquals(Status.INVALID, result.getRows().get(1).getStatus());
+        Assertions.assertEquals(Status.INVALID, result.getRows().get(2).getStatus());
+        Assertions.assertEquals(Status.INVALID, result.getRows().get(3).getStatus());
+    }
+
+    @Test
+    public void importAcceptsBodiesLargerThanTheServerLimit() {
+        // invalid rows skip hashing and inserts, the point is the body size
+        final String body = IntStream.range(0, 200)
+            .mapToObj((i) -> "{\"email\":\"invalid\",\"username\":\"" + StringUtils.repeat('x', 10) + i + "\",\"password\":\"1\",\"password_confirm\":\"1\"}")
+            .collect(Collectors.joining("\n"));
+        Assertions.assertTrue(body.length() > 4 * 1024);
+
+        final UserImportResult result = importUsers(body, ExportFormat.NDJSON_MEDIA_TYPE);
+        Assertions.assertEquals(200, result.getTotal());
+    }
+
+    @Test
+    public void otherRoutesKeepTheServerLimit() {
+        final String body = "{\"email\":\"" + StringUtils.repeat('x', 8 * 1024) + "@email.com\"}";
+        final HttpRequest<?> request = HttpRequest.POST("/users", body)
+            .contentType(MediaType.APPLICATION_JSON_TYPE)
+            .bearerAuth(accessToken);
+        final HttpClientResponseException e = Assertions.assertThrows(HttpClientResponseException.class,
+            () -> blockingClient.exchange(request, String.class));
+        Assertions.assertEquals(HttpStatus.REQUEST_ENTITY_TOO_LARGE, e.getStatus());
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.pedrozc90.users;
+
+import com.pedrozc90.users.models.User;
+import com.pedrozc90.users.models.UserRegistration;
+import com.pedrozc90.users.models.UserSuggestion;
+import com.pedrozc90.users.repo.UserPrefixIndex;
+import com.pedrozc90.users.repo.UserRepository;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.transaction.hibernate5.HibernateTransactionManager;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@MicronautTest(transactional = false)
+public class UserPrefixIndexTest {
+
+    @Inject
+    private UserRepository userRepository;
+
+    @Inject
+    private UserPrefixIndex userPrefixIndex;
+
+    @Inject
+    private HibernateTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setup() {
+        for (final String username : List.of("prefixa", "prefixb", "prefixc", "renamed")) {
+            userRepository.findByUsername(username).ifPresent((v) -> userRepository.remove(v));
+        }
+    }
+
+    private List<String> suggest(final String prefix) {
+        return userPrefixIndex.suggest(prefix, 10).stream().map(UserSuggestion::getUsername).collect(Collectors.toList());
+    }
+
+    private static User user(final String username) {
+        final User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@prefix.com");
+        user.setPassword("x");
+        return user;
+    }
+
+    @Test
+    public void inheritedSaveUpdateAndRemoveKeepTheIndexInSync() {
+        final User saved = userRepository.save(user("prefixa"));
+        Assertions.assertEquals(List.of("prefixa"), suggest("prefixa"));
+
+        saved.setUsername("renamed");
+        userRepository.update(saved);
+        Assertions.assertTrue(suggest("prefixa").isEmpty());
+        Assertions.assertEquals(List.of("renamed"), suggest("renam"));
+        // the email did not change and still finds the user
+        Assertions.assertEquals(List.of("renamed"), suggest("prefixa@"));
+
+        userRepository.remove(userRepository.findByIdOrThrowException(saved.getId()));
+        Assertions.assertTrue(suggest("renam").isEmpty());
+    }
+
+    @Test
+    public void saveManyIsIndexed() {
+        userRepository.saveMany(List.of(user("prefixb"), user("prefixc")), 10);
+        Assertions.assertEquals(List.of("prefixb", "prefixc"), suggest("prefix"));
+    }
+
+    @Test
+    public void registerIsIndexed() {
+        final UserRegistration data = UserRegistration.builder().email("prefixa@prefix.com").username("prefixa").build();
+        userRepository.register(data, "x");
+        Assertions.assertEquals(List.of("prefixa"), suggest("PREFIXA"));
+    }
+
+    @Test
+    public void rolledBackChangesAreNotIndexed() {
+        Assertions.assertThrows(IllegalStateException.class, () -> transactionManager.executeWrite((status) -> {
+            userRepository.save(user("prefixa"));
+            throw new IllegalStateException("rollback");
+        }));
+        Assertions.assertTrue(suggest("prefixa").isEmpty());
+    }
+
+    @Test
+    public void changesAreOnlyVisibleAfterCommit() {
+        transactionManager.executeWrite((status) -> {
+            userRepository.save(user("prefixa"));
+            Assertions.assertTrue(suggest("prefixa").isEmpty());
+            return null;
+        });
+        Assertions.assertEquals(List.of("prefixa"), suggest("prefixa"));
+    }
+
+    @Test
+    public void updatesNeverHideTheUserFromConcurrentSuggestions() throws InterruptedException {
+        final User saved = userRepository.save(user("prefixa"));
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final Thread writer = new Thread(() -> {
+            int i = 0;
+            while (running.get()) {
+                // outside of a transaction the index is updated right away
+                final User copy = user((i++ % 2 == 0) ? "prefixb" : "prefixc");
+                copy.setId(saved.getId());
+                copy.setEmail(saved.getEmail());
+                userPrefixIndex.onSaved(copy);
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 10_000; i++) {
+                Assertions.assertEquals(1, userPrefixIndex.suggest("prefixa@", 10).size());
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+            userPrefixIndex.onSaved(saved);
+        }
+    }
+
+}
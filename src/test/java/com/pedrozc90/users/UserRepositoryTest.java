@@ -5,19 +5,37 @@ import com.pedrozc90.core.models.Page;
 import com.pedrozc90.users.models.Profile;
 import com.pedrozc90.users.models.User;
 import com.pedrozc90.users.repo.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.transaction.hibernate5.HibernateTransactionManager;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-@MicronautTest
+@MicronautTest(transactional = false)
 public class UserRepositoryTest {
 
     @Inject
     private UserRepository userRepository;
 
+    @Inject
+    private EntityManager em;
+
+    @Inject
+    private HibernateTransactionManager transactionManager;
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
     @Test
     public void testFindById() {
         final long userId = 1;
@@ -61,4 +79,86 @@ public class UserRepositoryTest {
         Assertions.assertTrue(valid);
     }
 
+    @Test
+    public void forEachVisitsEveryUserOnce() {
+        final long count = userRepository.count(null);
+
+        final Set<Long> ids = new HashSet<>();
+        userRepository.forEach(null, 1, (user) -> Assertions.assertTrue(ids.add(user.getId())));
+        Assertions.assertEquals(count, ids.size());
+    }
+
+    @Test
+    public void forEachDetachesEachRowOnceConsumed() {
+        final List<User> seen = new ArrayList<>();
+        userRepository.forEach(null, 2, (user) -> {
+            for (int i = 0; i < seen.size(); i++) {
+                Assertions.assertFalse(em.contains(seen.get(i)), "row " + i);
+            }
+            Assertions.assertTrue(em.contains(user));
+            seen.add(user);
+        });
+        Assertions.assertFalse(seen.isEmpty());
+    }
+
+    @Test
+    public void streamLeavesTheCallersEntitiesAttached() {
+        transactionManager.executeWrite((status) -> {
+            final User master = userRepository.findByIdOrThrowException(1L);
+            master.setEmail("pedrozc90+streamed@gmail.com");
+
+            final List<User> others = new ArrayList<>();
+            try (final Stream<User> stream = userRepository.stream(null, 1)) {
+                stream.forEach((user) -> {
+                    if (user.getId() == 1L) {
+                        Assertions.assertSame(master, user);
+                    } else {
+                        others.add(user);
+                    }
+                });
+            }
+
+            Assertions.assertTrue(em.contains(master));
+            Assertions.assertEquals("pedrozc90+streamed@gmail.com", master.getEmail());
+            others.forEach((user) -> Assertions.assertFalse(em.contains(user)));
+
+            status.setRollbackOnly();
+            return null;
+        });
+    }
+
+    @Test
+    public void batchWritesRecordTheirTimings() {
+        final List<String> usernames = List.of("batcha", "batchb", "batchc");
+        final long flushes = count("repository.batch.flush");
+        final long writes = count("repository.batch.write");
+        try {
+            final List<User> users = new ArrayList<>();
+            for (final String username : usernames) {
+                final User user = new User();
+                user.setUsername(username);
+                user.setEmail(username + "@batch.com");
+                user.setPassword("x");
+                users.add(user);
+            }
+            userRepository.saveMany(users, 2);
+
+            // two batches of at most two rows, one write
+            Assertions.assertEquals(flushes + 2, count("repository.batch.flush"));
+            Assertions.assertEquals(writes + 1, count("repository.batch.write"));
+        } finally {
+            usernames.forEach((username) -> userRepository.findByUsername(username).ifPresent((v) -> userRepository.remove(v)));
+        }
+    }
+
+    private long count(final String name) {
+        final Timer timer = meterRegistry.find(name).tag("operation", "User.saveMany").timer();
+        return (timer != null) ? timer.count() : 0;
+    }
+
+    @Test
+    public void streamRequiresATransaction() {
+        Assertions.assertThrows(RuntimeException.class, () -> userRepository.stream(null, 1).close());
+    }
+
 }
@@ -0,0 +1,123 @@
+package com.pedrozc90.users;
+
+import com.pedrozc90.core.models.Page;
+import com.pedrozc90.users.models.User;
+import com.pedrozc90.users.repo.UserRepository;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+@MicronautTest(transactional = false)
+@Property(name = "jpa.default.properties.hibernate.session_factory.statement_inspector", value = "com.pedrozc90.users.UserSearchTest$RecordingStatementInspector")
+public class UserSearchTest {
+
+    // each user matches "zebrafish" on a single field, so only OR semantics find them all
+    private static final String[][] USERS = {
+        { "zebrafish", "search-a@other.com" },
+        { "search-b", "zebrafish@x.com" },
+        { "zebrafishes-tank", "search-c@other.com" }
+    };
+
+    private String accessToken;
+
+    private BlockingHttpClient blockingClient;
+
+    @Inject
+    @Client("/")
+    private HttpClient client;
+
+    @Inject
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void setup() {
+        blockingClient = client.toBlocking();
+
+        final UsernamePasswordCredentials credentials = new UsernamePasswordCredentials("master", "1");
+        final HttpResponse<BearerAccessRefreshToken> response = blockingClient.exchange(HttpRequest.POST("/login", credentials), BearerAccessRefreshToken.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatus());
+        accessToken = response.body().getAccessToken();
+
+        cleanup();
+        for (final String[] values : USERS) {
+            final User user = new User();
+            user.setUsername(values[0]);
+            user.setEmail(values[1]);
+            user.setPassword("x");
+            userRepository.save(user);
+        }
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        for (final String[] values : USERS) {
+            userRepository.findByUsername(values[0]).ifPresent((v) -> userRepository.remove(v));
+        }
+    }
+
+    private List<String> search(final String mode) {
+        final HttpRequest<?> request = HttpRequest.GET("/users?rpp=10&q=zebrafish&search=" + mode).bearerAuth(accessToken);
+        final Page<User> page = blockingClient.retrieve(request, Argument.of(Page.class, User.class));
+        return page.getList().stream().map(User::getUsername).collect(Collectors.toList());
+    }
+
+    @Test
+    public void trigramSearchMatchesAnyFieldOrderedBySimilarity() {
+        // similarity: 1.0 for the exact username, 10/16 for the email, 9/18 for the longer username
+        Assertions.assertEquals(List.of("zebrafish", "search-b", "zebrafishes-tank"), search("trigram"));
+    }
+
+    @Test
+    public void containsSearchRequiresEveryField() {
+        Assertions.assertTrue(search("contains").isEmpty());
+    }
+
+    @Test
+    public void trigramSearchRendersSimilarityOnPostgres() {
+        search("trigram");
+
+        final List<String> selects = RecordingStatementInspector.STATEMENTS.stream()
+            .map((sql) -> sql.toLowerCase(Locale.ROOT))
+            .filter((sql) -> sql.startsWith("select") && sql.contains(" from public.users ") && sql.contains("order by"))
+            .collect(Collectors.toList());
+        Assertions.assertFalse(selects.isEmpty());
+        final String sql = selects.get(selects.size() - 1);
+        final String orderBy = sql.substring(sql.lastIndexOf("order by"));
+        Assertions.assertTrue(orderBy.contains("greatest(similarity(lower("), sql);
+        Assertions.assertTrue(sql.contains(" or "), sql);
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        private static final Queue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public String inspect(final String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+
+    }
+
+}